@@ -0,0 +1,44 @@
+package girvannewman;
+
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+import util.GraphLoader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// a full run takes seconds on the larger datasets, add them with -p file=... when needed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({"data/7-node.edge", "data/karate.edge", "data/dolphins.edge"})
+    public String file;
+
+    @Param({"1"})
+    public int threads;
+
+    private Graph graph;
+    private Solver solver;
+
+    @Setup(Level.Trial)
+    public void loadGraph() throws IOException {
+        graph = new Graph();
+        GraphLoader.loadGraph(graph, file);
+
+        solver = new Solver(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeSolver() {
+        solver.close();
+    }
+
+    @Benchmark
+    public Solution solve() {
+        return solver.solve(graph, graph.getNumEdge() / 1000);
+    }
+}
@@ -0,0 +1,90 @@
+package girvannewman;
+
+import graph.CsrGraph;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+import util.GraphLoader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// a fresh Solution is built before every call, as the betweenness cache and the community labels
+// would otherwise turn repeated calls into no-ops.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"data/7-node.edge", "data/karate.edge", "data/dolphins.edge",
+            "data/facebook_ucsd_1000.edge", "data/facebook_ucsd_1500.edge"})
+    public String file;
+
+    @Param({"1"})
+    public int threads;
+
+    private CsrGraph graph;
+    private Solver solver;
+
+    @Setup(Level.Trial)
+    public void loadGraph() throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        graph = new CsrGraph(g);
+        solver = new Solver(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeSolver() {
+        solver.close();
+    }
+
+    @State(Scope.Thread)
+    public static class FreshSolution {
+        Solution s;
+        Problem p;
+
+        @Setup(Level.Invocation)
+        public void setUp(SolverBenchmark bench) {
+            s = Solution.fromCsr(bench.graph);
+            p = new Problem(s.getNumEdge(), 1);
+        }
+    }
+
+    // labelled communities with the first round of edges killed but not yet processed.
+    @State(Scope.Thread)
+    public static class FirstIteration {
+        Solution s;
+        Problem p;
+
+        @Setup(Level.Invocation)
+        public void setUp(SolverBenchmark bench) {
+            s = Solution.fromCsr(bench.graph);
+            bench.solver.findCommSet(s, new Problem(s.getNumEdge(), 1));
+
+            p = new Problem(s.getNumEdge(), 1);
+            bench.solver.getEdgesToKill(s, p);
+            bench.solver.killEdges(s, p);
+        }
+    }
+
+    @Benchmark
+    public Problem calcBetw(FreshSolution state) {
+        solver.calcBetw(state.s, state.p);
+        return state.p;
+    }
+
+    @Benchmark
+    public Problem findCommSet(FreshSolution state) {
+        solver.findCommSet(state.s, state.p);
+        return state.p;
+    }
+
+    @Benchmark
+    public Problem calcMod(FirstIteration state) {
+        solver.calcMod(state.s, state.p);
+        return state.p;
+    }
+}
@@ -0,0 +1,33 @@
+package util;
+
+import graph.CsrGraph;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphLoaderBenchmark {
+    @Param({"data/7-node.edge", "data/karate.edge", "data/dolphins.edge",
+            "data/facebook_ucsd_1000.edge", "data/facebook_ucsd_1500.edge"})
+    public String file;
+
+    @Benchmark
+    public Graph loadGraph() throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        return g;
+    }
+
+    @Benchmark
+    public CsrGraph loadCsr() throws IOException {
+        return new CsrGraph(GraphLoader.loadEdges(file));
+    }
+}
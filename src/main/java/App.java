@@ -1,9 +1,11 @@
 import girvannewman.Solution;
 import girvannewman.Solver;
+import girvannewman.StopPolicy;
+import girvannewman.listener.ConsoleListener;
 import graph.Graph;
 import util.GraphLoader;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
@@ -20,14 +22,17 @@ public class App {
         Graph g = new Graph();
         try {
             GraphLoader.loadGraph(g, "data/7-node.edge");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
 
         System.out.println("Graph loaded.");
 
-        Solver sv = new Solver();
-        Solution s = sv.solve(g, g.getNumEdge()/1000);
+        Solution s;
+        try (Solver sv = new Solver(Runtime.getRuntime().availableProcessors())) {
+            sv.addListener(new ConsoleListener());
+            s = sv.solve(g, StopPolicy.modularityPlateau(20, 0.0));
+        }
 
         Map<Integer, Set<Integer>> commSets = s.getOptCommSets();
 
@@ -0,0 +1,81 @@
+package girvannewman;
+
+// how many edges a run removes per betweenness calculation. The exact mode removes the edges tied for the
+// highest betweenness and recalculates, the others trade accuracy for fewer calculations, which
+// DriftReport measures against an exact run.
+public final class BatchMode {
+    enum Kind {
+        EXACT, TOP_K, WITHIN_EPSILON, UNTIL_SPLIT
+    }
+
+    private static final BatchMode EXACT = new BatchMode(Kind.EXACT, 1, 0.0);
+    private static final BatchMode UNTIL_SPLIT = new BatchMode(Kind.UNTIL_SPLIT, 1, 0.0);
+
+    private final Kind kind;
+    private final int k;
+    private final double epsilon;
+
+    private BatchMode(Kind kind, int k, double epsilon) {
+        this.kind = kind;
+        this.k = k;
+        this.epsilon = epsilon;
+    }
+
+    public static BatchMode exact() {
+        return EXACT;
+    }
+
+    // the k edges with the highest betweenness, lower edge ids first among equals, along with every edge
+    // tied for the highest. topK(1) returns the exact mode.
+    public static BatchMode topK(int k) {
+        if (k <= 0) {
+            String msg = String.format("Number of edges must be positive, received %d instead.", k);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return k == 1 ? EXACT : new BatchMode(Kind.TOP_K, k, 0.0);
+    }
+
+    // every edge with betweenness of at least (1 - epsilon) times the highest. withinEpsilon(0) returns the
+    // exact mode.
+    public static BatchMode withinEpsilon(double epsilon) {
+        if (epsilon < 0.0 || epsilon >= 1.0) {
+            String msg = String.format("Epsilon must be within [0, 1), received %f instead.", epsilon);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return epsilon == 0.0 ? EXACT : new BatchMode(Kind.WITHIN_EPSILON, 1, epsilon);
+    }
+
+    // keeps removing the edges tied for the highest betweenness as last calculated, one tie per iteration,
+    // and only recalculates once a removal splits a community.
+    public static BatchMode untilSplit() {
+        return UNTIL_SPLIT;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    int getK() {
+        return k;
+    }
+
+    double getEpsilon() {
+        return epsilon;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case TOP_K:
+                return String.format("top %d", k);
+            case WITHIN_EPSILON:
+                return String.format("within %s of the max", epsilon);
+            case UNTIL_SPLIT:
+                return "until split";
+            default:
+                return "exact";
+        }
+    }
+}
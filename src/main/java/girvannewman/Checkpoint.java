@@ -0,0 +1,212 @@
+package girvannewman;
+
+import girvannewman.data.RemovalLog;
+import graph.CsrGraph;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// state of a run after its last completed iteration. The betweenness cache and the community labels are
+// not stored, they are rebuilt from the live edges on the first iteration after resuming.
+class Checkpoint {
+    private static final int MAGIC = 0x474E4350;
+    private static final int VERSION = 2;
+
+    private final Solution solution;
+    // threshold of StopPolicy.nonImproving, negative when the run used another policy.
+    private final int threshold;
+
+    Checkpoint(Solution solution, int threshold) {
+        this.solution = solution;
+        this.threshold = threshold;
+    }
+
+    Solution getSolution() {
+        return solution;
+    }
+
+    int getThreshold() {
+        return threshold;
+    }
+
+    // written to a temporary file first and renamed over the old checkpoint, so a crash mid-write
+    // leaves the previous checkpoint intact.
+    void write(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+
+            writeBody(out);
+            out.flush();
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+
+            file.getFD().sync();
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void writeBody(DataOutputStream out) throws IOException {
+        CsrGraph graph = solution.getGraph();
+        RemovalLog log = solution.getRemovalLog();
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(graph.getNumVertex());
+        out.writeInt(graph.getNumEdge());
+        out.writeInt(fingerprint(graph));
+        out.writeInt(threshold);
+
+        // objList[0] is the placeholder for the unsplit graph.
+        out.writeInt(log.getNumIter());
+        for (int iter = 1; iter <= log.getNumIter(); iter++) {
+            out.writeDouble(log.getObj(iter));
+        }
+
+        for (int edge = 0; edge < graph.getNumEdge(); edge++) {
+            out.writeInt(solution.getIterKilled(edge));
+        }
+
+        int[] labels = new int[graph.getNumVertex()];
+        Arrays.fill(labels, -1);
+
+        Map<Integer, Set<Integer>> optCommSets = solution.getOptCommSets();
+        if (optCommSets != null) {
+            for (int comm : optCommSets.keySet()) {
+                for (int node : optCommSets.get(comm)) {
+                    labels[node] = comm;
+                }
+            }
+        }
+
+        out.writeBoolean(optCommSets != null);
+        for (int label : labels) {
+            out.writeInt(label);
+        }
+    }
+
+    static Checkpoint read(Path path, CsrGraph graph) throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path))) {
+            CheckedInputStream checked = new CheckedInputStream(file, new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+
+            Checkpoint cp = readBody(in, path, graph);
+
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) {
+                String msg = String.format("Checksum of %s does not match its contents.", path);
+                throw new IllegalArgumentException(msg);
+            }
+
+            return cp;
+        } catch (EOFException e) {
+            String msg = String.format("Checkpoint %s is truncated.", path);
+            throw new IllegalArgumentException(msg, e);
+        }
+    }
+
+    private static Checkpoint readBody(DataInputStream in, Path path, CsrGraph graph) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            String msg = String.format("File %s is not a version %d checkpoint.", path, VERSION);
+            throw new IllegalArgumentException(msg);
+        }
+
+        int numVert = in.readInt();
+        int numEdge = in.readInt();
+        int fingerprint = in.readInt();
+
+        if (numVert != graph.getNumVertex() || numEdge != graph.getNumEdge() || fingerprint != fingerprint(graph)) {
+            String msg = String.format("Checkpoint %s was written for a different graph with %d vertices and %d edges.",
+                    path, numVert, numEdge);
+            throw new IllegalArgumentException(msg);
+        }
+
+        int threshold = in.readInt();
+        int numIter = in.readInt();
+
+        double[] objs = new double[numIter + 1];
+        for (int iter = 1; iter <= numIter; iter++) {
+            objs[iter] = in.readDouble();
+        }
+
+        List<Set<Integer>> killed = new ArrayList<>();
+        for (int iter = 0; iter <= numIter; iter++) {
+            killed.add(new HashSet<>());
+        }
+
+        Solution s = Solution.fromCsr(graph);
+        for (int edge = 0; edge < numEdge; edge++) {
+            int iter = in.readInt();
+
+            if (iter > numIter) {
+                String msg = String.format("Edge %d was killed on iteration %d, after the last one %d.",
+                        edge, iter, numIter);
+                throw new IllegalArgumentException(msg);
+            }
+
+            if (iter > 0) {
+                s.killEdge(edge, iter);
+                killed.get(iter).add(edge);
+            }
+        }
+
+        // replaying the results also recovers optIter.
+        for (int iter = 1; iter <= numIter; iter++) {
+            s.addResultAndSetOpt(objs[iter], killed.get(iter));
+        }
+
+        boolean hasOpt = in.readBoolean();
+        Map<Integer, Set<Integer>> optCommSets = new HashMap<>();
+        for (int node = 0; node < numVert; node++) {
+            int comm = in.readInt();
+
+            if (comm >= 0) {
+                optCommSets.computeIfAbsent(comm, k -> new HashSet<>()).add(node);
+            }
+        }
+
+        if (hasOpt) {
+            s.setOptCommSets(optCommSets);
+        }
+
+        return new Checkpoint(s, threshold);
+    }
+
+    // weights only count for a weighted graph, so unweighted checkpoints keep the fingerprint they had.
+    private static int fingerprint(CsrGraph graph) {
+        CRC32 crc = new CRC32();
+        int[] targets = graph.getTargets();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        for (int from = 0; from < targets.length; from += buffer.capacity() / 4) {
+            int length = Math.min(buffer.capacity() / 4, targets.length - from);
+
+            buffer.clear();
+            buffer.asIntBuffer().put(targets, from, length);
+            crc.update(buffer.array(), 0, 4 * length);
+        }
+
+        double[] weights = graph.getWeights();
+        for (int from = 0; weights != null && from < weights.length; from += buffer.capacity() / 8) {
+            int length = Math.min(buffer.capacity() / 8, weights.length - from);
+
+            buffer.clear();
+            buffer.asDoubleBuffer().put(weights, from, length);
+            crc.update(buffer.array(), 0, 8 * length);
+        }
+
+        return (int) crc.getValue();
+    }
+}
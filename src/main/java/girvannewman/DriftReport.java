@@ -0,0 +1,114 @@
+package girvannewman;
+
+import girvannewman.data.RemovalLog;
+
+// how far the modularity curve of a batched run drifts from the curve of an exact run on the same graph.
+// Batched iterations remove more edges at once, so the curves are compared by the number of edges removed:
+// each batched iteration is matched with the last exact iteration that removed no more edges than it.
+public class DriftReport {
+    private final int numIter;
+    private final double maxDrift;
+    private final int maxDriftIter;
+    private final double meanDrift;
+    private final double exactOptMod;
+    private final double batchedOptMod;
+
+    private DriftReport(int numIter, double maxDrift, int maxDriftIter, double meanDrift, double exactOptMod,
+                        double batchedOptMod) {
+        this.numIter = numIter;
+        this.maxDrift = maxDrift;
+        this.maxDriftIter = maxDriftIter;
+        this.meanDrift = meanDrift;
+        this.exactOptMod = exactOptMod;
+        this.batchedOptMod = batchedOptMod;
+    }
+
+    public static DriftReport compare(Solution exact, Solution batched) {
+        if (exact == null || batched == null) {
+            throw new NullPointerException("Solution is null.");
+        }
+
+        if (exact.getNumEdge() != batched.getNumEdge() || exact.getNumVert() != batched.getNumVert()) {
+            String msg = String.format("Solutions must be for the same graph, received %d and %d edges instead.",
+                    exact.getNumEdge(), batched.getNumEdge());
+            throw new IllegalArgumentException(msg);
+        }
+
+        RemovalLog exactLog = exact.getRemovalLog();
+        RemovalLog batchedLog = batched.getRemovalLog();
+
+        double maxDrift = 0.0;
+        int maxDriftIter = 0;
+        double sumDrift = 0.0;
+        int exactIter = 0;
+
+        for (int iter = 1; iter <= batchedLog.getNumIter(); iter++) {
+            int numRemoved = batchedLog.getIterStart(iter) + batchedLog.getNumRemoved(iter);
+
+            while (exactIter < exactLog.getNumIter()
+                    && exactLog.getIterStart(exactIter + 1) + exactLog.getNumRemoved(exactIter + 1) <= numRemoved) {
+                exactIter++;
+            }
+
+            double drift = Math.abs(batchedLog.getObj(iter) - exactLog.getObj(exactIter));
+            sumDrift += drift;
+
+            if (drift > maxDrift) {
+                maxDrift = drift;
+                maxDriftIter = iter;
+            }
+        }
+
+        int numIter = batchedLog.getNumIter();
+        double meanDrift = numIter > 0 ? sumDrift / numIter : 0.0;
+
+        return new DriftReport(numIter, maxDrift, maxDriftIter, meanDrift, optMod(exactLog), optMod(batchedLog));
+    }
+
+    private static double optMod(RemovalLog log) {
+        double optMod = 0.0;
+        for (int iter = 1; iter <= log.getNumIter(); iter++) {
+            optMod = Math.max(optMod, log.getObj(iter));
+        }
+
+        return optMod;
+    }
+
+    // number of batched iterations compared.
+    public int getNumIter() {
+        return numIter;
+    }
+
+    public double getMaxDrift() {
+        return maxDrift;
+    }
+
+    // batched iteration with the largest drift, 0 if there is none.
+    public int getMaxDriftIter() {
+        return maxDriftIter;
+    }
+
+    public double getMeanDrift() {
+        return meanDrift;
+    }
+
+    public double getExactOptMod() {
+        return exactOptMod;
+    }
+
+    public double getBatchedOptMod() {
+        return batchedOptMod;
+    }
+
+    // positive when the batched run found a worse best modularity than the exact run.
+    public double getOptModLoss() {
+        return exactOptMod - batchedOptMod;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d iterations, max drift %.6f at iteration %d, mean drift %.6f, " +
+                "best modularity %.6f against %.6f exact", numIter, maxDrift, maxDriftIter, meanDrift,
+                batchedOptMod, exactOptMod);
+    }
+}
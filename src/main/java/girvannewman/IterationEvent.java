@@ -0,0 +1,88 @@
+package girvannewman;
+
+import java.util.Collections;
+import java.util.Set;
+
+public class IterationEvent {
+    private final int iter;
+
+    // wall-clock time of each step. Betweenness includes picking the edges to kill, and modularity
+    // excludes finding the communities, which is timed on its own.
+    private final long betwNanos;
+    private final long killNanos;
+    private final long findCommNanos;
+    private final long modNanos;
+
+    private final int numBfs;
+    private final Set<Integer> edgesRemoved;
+    private final int numComm;
+    private final double mod;
+    private final double optMod;
+
+    // bytes allocated during the iteration by the solving thread and the pool workers running its tasks,
+    // -1 when the JVM does not report it.
+    private final long allocatedBytes;
+
+    IterationEvent(int iter, long betwNanos, long killNanos, long findCommNanos, long modNanos, int numBfs,
+                   Set<Integer> edgesRemoved, int numComm, double mod, double optMod, long allocatedBytes) {
+        this.iter = iter;
+        this.betwNanos = betwNanos;
+        this.killNanos = killNanos;
+        this.findCommNanos = findCommNanos;
+        this.modNanos = modNanos;
+        this.numBfs = numBfs;
+        this.edgesRemoved = Collections.unmodifiableSet(edgesRemoved);
+        this.numComm = numComm;
+        this.mod = mod;
+        this.optMod = optMod;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public int getIter() {
+        return iter;
+    }
+
+    public long getBetwNanos() {
+        return betwNanos;
+    }
+
+    public long getKillNanos() {
+        return killNanos;
+    }
+
+    public long getFindCommNanos() {
+        return findCommNanos;
+    }
+
+    public long getModNanos() {
+        return modNanos;
+    }
+
+    public long getTotalNanos() {
+        return betwNanos + killNanos + findCommNanos + modNanos;
+    }
+
+    public int getNumBfs() {
+        return numBfs;
+    }
+
+    public Set<Integer> getEdgesRemoved() {
+        return edgesRemoved;
+    }
+
+    public int getNumComm() {
+        return numComm;
+    }
+
+    public double getMod() {
+        return mod;
+    }
+
+    public double getOptMod() {
+        return optMod;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
@@ -1,6 +1,6 @@
 package girvannewman;
 
-import girvannewman.data.FlowData;
+import girvannewman.data.ComponentData;
 
 import java.util.*;
 
@@ -9,7 +9,9 @@ public class Problem {
     private final double[] betw;
     private final Map<Integer, Integer> vertCommunity;
     private final Map<Integer, Set<Integer>> communitiesSet;
-    private Map<Integer, FlowData> flowsData;
+    // a view of the solution's labels, they stay valid until a community splits and numComm grows.
+    private ComponentData commLabels;
+    private int numComm;
     private Set<Integer> edgesToKill;
     private double mod;
 
@@ -30,7 +32,6 @@ public class Problem {
 
         vertCommunity = new HashMap<>();
         communitiesSet = new HashMap<>();
-        resetFlowsData();
     }
 
     public int getIter() {
@@ -63,21 +64,43 @@ public class Problem {
         edgesToKill = edges;
     }
 
-    public void resetFlowsData() {
-        flowsData = new HashMap<>();
+    public void setCommLabels(ComponentData comps) {
+        if (comps == null) {
+            throw new NullPointerException("Components are null.");
+        }
+
+        commLabels = comps;
+        numComm = comps.getNumComm();
     }
 
-    public Map<Integer, FlowData> getFlowsData() {
-        return flowsData;
+    public int getNumComm() {
+        return commLabels != null ? numComm : communitiesSet.size();
     }
 
-    public FlowData getFlowData(int node) {
-        if (!flowsData.containsKey(node)) {
-            String msg = String.format("Element %d not found", node);
-            throw new NoSuchElementException(msg);
+    // the community sets are only materialised when asked for, numbered by their smallest node.
+    private void buildCommunitiesSet() {
+        if (commLabels == null) {
+            return;
+        }
+
+        ComponentData labels = commLabels;
+        commLabels = null;
+
+        if (labels.getNumComm() != numComm) {
+            throw new IllegalStateException("Communities have split since their labels were set.");
         }
 
-        return flowsData.get(node);
+        Map<Integer, Integer> labelToIndex = new HashMap<>();
+        for (int node = 0; node < labels.getNumVert(); node++) {
+            Integer index = labelToIndex.get(labels.getComm(node));
+
+            if (index == null) {
+                index = initNewComm();
+                labelToIndex.put(labels.getComm(node), index);
+            }
+
+            putInComm(index, node);
+        }
     }
 
     public int initNewComm() {
@@ -95,10 +118,12 @@ public class Problem {
     }
 
     public boolean isInComm(int node) {
+        buildCommunitiesSet();
         return vertCommunity.containsKey(node);
     }
 
     public Map<Integer, Set<Integer>> getCommunitiesSet() {
+        buildCommunitiesSet();
         return communitiesSet;
     }
 
@@ -1,64 +1,103 @@
 package girvannewman;
 
+import girvannewman.data.BetwCache;
+import girvannewman.data.ComponentData;
 import girvannewman.data.EdgeData;
+import girvannewman.data.RemovalLog;
+import girvannewman.data.SourceDags;
+import girvannewman.data.UnionFind;
+import graph.CsrGraph;
 import graph.Graph;
 import graph.VertexPair;
 
 import java.util.*;
 
 public class Solution {
-    private final Map<Integer, Set<Integer>> neighborsSet;
+    private final CsrGraph graph;
     private final int numVert;
     private final int numEdge;
-    private final Map<VertexPair, Integer> vertToEdge;
-    private final EdgeData[] edgesData;
 
-    private final List<Double> objList;
+    // bit e of aliveEdges is set while edge e is alive.
+    private final long[] aliveEdges;
+    private final int[] iterKilled;
+    private int numAliveEdges;
+    private final BetwCache betwCache;
+    // null unless the solver keeps shortest-path DAGs for incremental betweenness.
+    private SourceDags sourceDags;
+    private final ComponentData components;
+
+    private final RemovalLog removalLog;
     private int optIter;
 
-    private final Set<VertexPair> severedPairs;
-    private final List<Set<Integer>> killedEdgeList;
     private Map<Integer, Set<Integer>> optCommunitiesSet;
+    private boolean truncated;
 
     public Solution(Graph graph) {
-        neighborsSet = graph.exportGraph();
-        numVert = graph.getNumVertex();
-        numEdge = graph.getNumEdge();
+        this(new CsrGraph(graph));
+    }
+
+    public static Solution fromCsr(CsrGraph graph) {
+        return new Solution(graph);
+    }
 
-        vertToEdge = new HashMap<>();
-        edgesData = new EdgeData[numEdge];
+    // rebuilds the solution a removal log was taken from, e.g. one loaded with RemovalLog.load, so that its
+    // levels can be read without running the solver again.
+    public static Solution fromLog(CsrGraph graph, RemovalLog log) {
+        if (graph == null || log == null) {
+            throw new NullPointerException("Graph or removal log is null.");
+        }
 
-        int edge = 0;
-        for (int node = 0; node < numVert; node++) {
-            Set<Integer> neighbors = neighborsSet.get(node);
+        Solution s = new Solution(graph);
+
+        for (int iter = 1; iter <= log.getNumIter(); iter++) {
+            Set<Integer> removed = new LinkedHashSet<>();
+
+            for (int i = 0; i < log.getNumRemoved(iter); i++) {
+                int edge = log.getRemoved(iter, i);
 
-            for (int neighbor : neighbors) {
-                if(!hasEdge(node, neighbor)) {
-                    addVertToEdge(node, neighbor, edge);
-                    addEdgesData(node, neighbor, edge);
-                    edge++;
+                if (edge < 0 || edge >= s.numEdge || !s.isEdgeAlive(edge)) {
+                    String msg = String.format("Edge %d removed on iteration %d is not a live edge of a graph " +
+                            "with %d edges.", edge, iter, s.numEdge);
+                    throw new IllegalArgumentException(msg);
                 }
+
+                s.killEdge(edge, iter);
+                removed.add(edge);
             }
+
+            s.addResultAndSetOpt(log.getObj(iter), removed);
         }
 
-        objList = new ArrayList<>();
-        objList.add(0.0);
+        if (log.getNumIter() > 0) {
+            s.setOptCommSets(s.getCommunitiesAt(s.getOptIter()));
+        }
 
-        severedPairs = new HashSet<>();
-        killedEdgeList = new ArrayList<>();
-        killedEdgeList.add(new HashSet<>());
+        return s;
     }
 
-    //<editor-fold desc="Constructor helpers">
-    private void addVertToEdge(int node1, int node2, int edgeIndex){
-        VertexPair vp = new VertexPair(node1, node2);
-        vertToEdge.put(vp, edgeIndex);
+    private Solution(CsrGraph graph) {
+        this.graph = graph;
+        numVert = graph.getNumVertex();
+        numEdge = graph.getNumEdge();
+
+        aliveEdges = new long[(numEdge + 63) >>> 6];
+        iterKilled = new int[numEdge];
+        numAliveEdges = numEdge;
+
+        for (int edge = 0; edge < numEdge; edge++) {
+            aliveEdges[edge >>> 6] |= 1L << edge;
+            iterKilled[edge] = -1;
+        }
+
+        betwCache = new BetwCache(numVert, numEdge);
+        components = new ComponentData(numVert);
+
+        removalLog = new RemovalLog();
     }
 
-    private void addEdgesData(int node1, int node2, int edgeIndex) {
-        edgesData[edgeIndex] = new EdgeData(node1, node2, edgeIndex);
+    public CsrGraph getGraph() {
+        return graph;
     }
-    //</editor-fold>
 
     public Set<Integer> getNeighborsOf(int node) {
         if (!hasNode(node)) {
@@ -66,42 +105,109 @@ public class Solution {
             throw new IllegalArgumentException(msg);
         }
 
-        return neighborsSet.get(node);
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        Set<Integer> neighbors = new HashSet<>();
+        for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+            neighbors.add(targets[slot]);
+        }
+
+        return neighbors;
     }
 
     public int getNumNeighborsOf(int node) {
-        return getNeighborsOf(node).size();
+        if (!hasNode(node)) {
+            String msg = String.format("Node %d does not exist.", node);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return graph.getDegree(node);
     }
 
     public boolean areNeighbors(int node1, int node2) {
-        if (!hasNode(node1)) {
-            return false;
-        }
-
-        return getNeighborsOf(node1).contains(node2);
+        return hasEdge(node1, node2);
     }
 
     private boolean hasNode(int node) {
-        return neighborsSet.containsKey(node);
+        return node >= 0 && node < numVert;
     }
 
     public boolean hasEdge(int node1, int node2) {
-        VertexPair vp = new VertexPair(node1, node2);
-        return vertToEdge.containsKey(vp);
+        return graph.findEdge(node1, node2) >= 0;
     }
 
     public int getEdge(VertexPair vp) {
-        return vertToEdge.get(vp);
+        return getEdge(vp.getVert1(), vp.getVert2());
     }
 
+    public int getEdge(int node1, int node2) {
+        int edge = graph.findEdge(node1, node2);
+
+        if (edge < 0) {
+            String msg = String.format("Edge (%d, %d) does not exist.", node1, node2);
+            throw new NoSuchElementException(msg);
+        }
+
+        return edge;
+    }
+
+    public BetwCache getBetwCache() {
+        return betwCache;
+    }
+
+    public SourceDags getSourceDags() {
+        return sourceDags;
+    }
+
+    void setSourceDags(SourceDags sourceDags) {
+        this.sourceDags = sourceDags;
+    }
+
+    public ComponentData getComponents() {
+        return components;
+    }
+
+    public boolean isEdgeAlive(int edge) {
+        return (aliveEdges[edge >>> 6] & (1L << edge)) != 0;
+    }
+
+    public int getNumAliveEdges() {
+        return numAliveEdges;
+    }
+
+    public int getIterKilled(int edge) {
+        return iterKilled[edge];
+    }
+
+    public void killEdge(int edge, int iter) {
+        if (iter <= 0) {
+            String msg = String.format("Iteration must be positive, received %d instead.", iter);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (isEdgeAlive(edge)) {
+            numAliveEdges--;
+        }
+
+        aliveEdges[edge >>> 6] &= ~(1L << edge);
+        iterKilled[edge] = iter;
+        components.addPendingKill(edge);
+    }
+
+    // returns a snapshot, killing the returned EdgeData does not affect this solution.
     public EdgeData getEdgeData(int edge) {
-        return edgesData[edge];
+        EdgeData ed = new EdgeData(graph.getEdgeSource(edge), graph.getEdgeTarget(edge), edge);
+
+        if (!isEdgeAlive(edge)) {
+            ed.kill(iterKilled[edge]);
+        }
+
+        return ed;
     }
 
     public EdgeData getEdgeData(int node1, int node2) {
-        VertexPair vp = new VertexPair(node1, node2);
-        int edge = getEdge(vp);
-        return edgesData[edge];
+        return getEdgeData(getEdge(node1, node2));
     }
 
     public int getNumVert() {
@@ -118,13 +224,11 @@ public class Solution {
             throw new NullPointerException("Killed edges set is null.");
         }
 
-        objList.add(obj);
+        removalLog.add(obj, killedEdges);
 
-        if (obj >= objList.get(optIter)) {
-            optIter = objList.size() - 1;
+        if (obj >= removalLog.getObj(optIter)) {
+            optIter = removalLog.getNumIter();
         }
-
-        addKilledEdge(killedEdges);
     }
 
     public void setOptCommSets(Map<Integer, Set<Integer>> optCommSet) {
@@ -139,28 +243,278 @@ public class Solution {
         return optCommunitiesSet;
     }
 
+    public RemovalLog getRemovalLog() {
+        return removalLog;
+    }
+
+    // read-only view of the objectives in the removal log.
     public List<Double> getObjList() {
-        return objList;
+        return new AbstractList<Double>() {
+            @Override
+            public Double get(int iter) {
+                return removalLog.getObj(iter);
+            }
+
+            @Override
+            public int size() {
+                return removalLog.getNumIter() + 1;
+            }
+        };
     }
 
     public int getOptIter() {
         return optIter;
     }
 
-    public void addSeveredPairs(VertexPair vp) {
-        severedPairs.add(vp);
+    // whether the run stopped on a time limit, memory budget or cancel request rather than its stop policy.
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    //<editor-fold desc="Partitions by level">
+    // communities after iteration iter, found by adding the edges removed later back in reverse order.
+    public Map<Integer, Set<Integer>> getCommunitiesAt(int iter) {
+        if (iter < 0 || iter > removalLog.getNumIter()) {
+            String msg = String.format("Iteration must be within [0, %d], received %d instead.",
+                    removalLog.getNumIter(), iter);
+            throw new IllegalArgumentException(msg);
+        }
+
+        UnionFind uf = unionSurvivingEdges();
+
+        int stop = iter < removalLog.getNumIter() ? removalLog.getIterStart(iter + 1) : removalLog.getNumRemoved();
+        for (int pos = removalLog.getNumRemoved() - 1; pos >= stop; pos--) {
+            int edge = removalLog.getRemovedAt(pos);
+            uf.union(graph.getEdgeSource(edge), graph.getEdgeTarget(edge));
+        }
+
+        return toCommunitiesSet(uf);
+    }
+
+    // the partition only changes when a community splits, so all iterations with k communities share it.
+    public Map<Integer, Set<Integer>> getCommunitiesWithK(int k) {
+        UnionFind uf = unionSurvivingEdges();
+
+        for (int iter = removalLog.getNumIter(); iter >= 0 && uf.getNumSets() >= k; iter--) {
+            if (uf.getNumSets() == k) {
+                return toCommunitiesSet(uf);
+            }
+
+            if (iter > 0) {
+                for (int i = removalLog.getNumRemoved(iter) - 1; i >= 0; i--) {
+                    int edge = removalLog.getRemoved(iter, i);
+                    uf.union(graph.getEdgeSource(edge), graph.getEdgeTarget(edge));
+                }
+            }
+        }
+
+        String msg = String.format("No iteration has exactly %d communities.", k);
+        throw new IllegalArgumentException(msg);
     }
 
-    public Set<VertexPair> getSeveredPairs() {
-        return severedPairs;
+    // modularity of the partition after every iteration, entry 0 being the unsplit graph. Uses the same
+    // convention as Solver.calcMod, where an edge removed earlier still counts as internal as long as its
+    // ends are connected.
+    public double[] getModularityByIter() {
+        int numIter = removalLog.getNumIter();
+        double[] mods = new double[numIter + 1];
+        double m = graph.getTotalWeight();
+
+        if (numEdge == 0) {
+            return mods;
+        }
+
+        LevelForest forest = new LevelForest(numVert);
+
+        double sumDegSq = 0.0;
+        for (int node = 0; node < numVert; node++) {
+            forest.commDeg[node] = graph.getStrength(node);
+            sumDegSq += forest.commDeg[node] * forest.commDeg[node];
+        }
+
+        double selfDegSq = sumDegSq;
+        double[] sumDegSqAt = new double[numIter + 1];
+
+        boolean[] removed = markRemoved();
+        for (int edge = 0; edge < numEdge; edge++) {
+            if (!removed[edge]) {
+                sumDegSq += forest.link(graph.getEdgeSource(edge), graph.getEdgeTarget(edge), numIter);
+            }
+        }
+
+        for (int iter = numIter; iter >= 0; iter--) {
+            sumDegSqAt[iter] = sumDegSq;
+
+            for (int i = 0; iter > 0 && i < removalLog.getNumRemoved(iter); i++) {
+                int edge = removalLog.getRemoved(iter, i);
+                sumDegSq += forest.link(graph.getEdgeSource(edge), graph.getEdgeTarget(edge), iter - 1);
+            }
+        }
+
+        // an edge is internal on every level up to the last one at which its ends are connected.
+        double[] internalAt = new double[numIter + 1];
+        for (int edge = 0; edge < numEdge; edge++) {
+            int level = forest.connectedUntil(graph.getEdgeSource(edge), graph.getEdgeTarget(edge));
+
+            if (level >= 0) {
+                internalAt[Math.min(level, numIter)] += graph.getWeight(edge);
+            }
+        }
+
+        for (int iter = numIter - 1; iter >= 0; iter--) {
+            internalAt[iter] += internalAt[iter + 1];
+        }
+
+        for (int iter = 0; iter <= numIter; iter++) {
+            mods[iter] = internalAt[iter] / m
+                    - (sumDegSqAt[iter] - selfDegSq) / (4.0 * m * m);
+        }
+
+        return mods;
     }
 
-    private void addKilledEdge(Set<Integer> killedEdges) {
-        killedEdgeList.add(killedEdges);
+    private UnionFind unionSurvivingEdges() {
+        UnionFind uf = new UnionFind(numVert);
+        boolean[] removed = markRemoved();
+
+        for (int edge = 0; edge < numEdge; edge++) {
+            if (!removed[edge]) {
+                uf.union(graph.getEdgeSource(edge), graph.getEdgeTarget(edge));
+            }
+        }
+
+        return uf;
     }
 
+    private boolean[] markRemoved() {
+        boolean[] removed = new boolean[numEdge];
+
+        for (int pos = 0; pos < removalLog.getNumRemoved(); pos++) {
+            removed[removalLog.getRemovedAt(pos)] = true;
+        }
+
+        return removed;
+    }
+
+    private Map<Integer, Set<Integer>> toCommunitiesSet(UnionFind uf) {
+        // numbered in order of their smallest node, like Problem does.
+        Map<Integer, Set<Integer>> commSets = new HashMap<>();
+        Map<Integer, Integer> rootToIndex = new HashMap<>();
+
+        for (int node = 0; node < numVert; node++) {
+            Integer index = rootToIndex.computeIfAbsent(uf.find(node), root -> rootToIndex.size());
+            commSets.computeIfAbsent(index, k -> new HashSet<>()).add(node);
+        }
+
+        return commSets;
+    }
+    //</editor-fold>
+
+    // read-only view of the removal log, each set is built when asked for.
     public List<Set<Integer>> getKilledEdgeList() {
-        return killedEdgeList;
+        return new AbstractList<Set<Integer>>() {
+            @Override
+            public Set<Integer> get(int iter) {
+                Set<Integer> killed = new HashSet<>();
+
+                for (int i = 0; i < removalLog.getNumRemoved(iter); i++) {
+                    killed.add(removalLog.getRemoved(iter, i));
+                }
+
+                return Collections.unmodifiableSet(killed);
+            }
+
+            @Override
+            public int size() {
+                return removalLog.getNumIter() + 1;
+            }
+        };
     }
     //</editor-fold>
+
+    // union forest without path compression. level[v] is the last iteration at which v and its parent are
+    // connected, and order[v] tells when that link was made. Links are made with decreasing levels, and a
+    // node is always linked before its parent.
+    private static class LevelForest {
+        private final int[] parent;
+        private final int[] rank;
+        private final int[] level;
+        private final int[] order;
+        private final double[] commDeg;
+        private int numLinks;
+
+        LevelForest(int numVert) {
+            parent = new int[numVert];
+            rank = new int[numVert];
+            level = new int[numVert];
+            order = new int[numVert];
+            commDeg = new double[numVert];
+
+            for (int node = 0; node < numVert; node++) {
+                parent[node] = node;
+                order[node] = Integer.MAX_VALUE;
+            }
+        }
+
+        private int findRoot(int node) {
+            while (parent[node] != node) {
+                node = parent[node];
+            }
+
+            return node;
+        }
+
+        // returns the change in the sum of squared community degrees.
+        double link(int node1, int node2, int linkLevel) {
+            int root1 = findRoot(node1);
+            int root2 = findRoot(node2);
+
+            if (root1 == root2) {
+                return 0.0;
+            }
+
+            if (rank[root1] < rank[root2]) {
+                int temp = root1;
+                root1 = root2;
+                root2 = temp;
+            }
+
+            if (rank[root1] == rank[root2]) {
+                rank[root1]++;
+            }
+
+            double change = 2 * commDeg[root1] * commDeg[root2];
+
+            parent[root2] = root1;
+            level[root2] = linkLevel;
+            order[root2] = numLinks++;
+            commDeg[root1] += commDeg[root2];
+
+            return change;
+        }
+
+        // last level at which node1 and node2 are connected, or -1 if they never are. The node linked
+        // earlier cannot be an ancestor of the other, so it moves up until both meet.
+        int connectedUntil(int node1, int node2) {
+            int lowest = Integer.MAX_VALUE;
+
+            while (node1 != node2) {
+                if (order[node1] < order[node2]) {
+                    lowest = Math.min(lowest, level[node1]);
+                    node1 = parent[node1];
+                } else if (order[node2] != Integer.MAX_VALUE) {
+                    lowest = Math.min(lowest, level[node2]);
+                    node2 = parent[node2];
+                } else {
+                    return -1;
+                }
+            }
+
+            return lowest;
+        }
+    }
 }
@@ -1,127 +1,1858 @@
 package girvannewman;
 
-import girvannewman.data.EdgeData;
-import girvannewman.data.FlowData;
+import girvannewman.data.BetwCache;
+import girvannewman.data.BfsWorkspace;
+import girvannewman.data.ComponentData;
+import girvannewman.data.FrontierParts;
+import girvannewman.data.MsBfsWorkspace;
+import girvannewman.data.NodeQueue;
+import girvannewman.data.RemovalLog;
+import girvannewman.data.SourceDags;
+import graph.CsrGraph;
 import graph.Graph;
-import graph.VertexPair;
+import util.Stats;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
+
+import static util.Constants.EPSILON;
+
+public class Solver implements AutoCloseable {
+    // a task holds one batch of the multi-source BFS.
+    private static final int SOURCES_PER_TASK = MsBfsWorkspace.WIDTH;
+    // largest multi-source workspace per thread, bigger graphs search one source at a time.
+    private static final long MAX_MS_BFS_BYTES = 1L << 28;
+    // a single source is searched on all threads, a level at a time, when a calculation has fewer sources
+    // than threads on a graph of at least this many nodes.
+    private static final int MIN_LEVEL_PARALLEL_VERT = 1 << 14;
+    // smallest part of a level given to a thread, smaller levels are searched by the calling thread.
+    private static final int MIN_NODES_PER_PART = 512;
+    // integer weights up to this are handled with a bucket queue, anything else with a heap.
+    private static final int MAX_BUCKET_STEP = 1 << 16;
+    // steps each subproblem works out ahead of the run, refilled once half of them are used.
+    private static final int STEPS_AHEAD = 16;
+
+    private final int numThreads;
+    private final ForkJoinPool pool;
+    // pools passed in belong to the caller and are left running on close.
+    private final boolean ownsPool;
+    private volatile boolean closed;
+    private final ThreadLocal<BfsWorkspace> workspaces = new ThreadLocal<>();
+    private final ThreadLocal<MsBfsWorkspace> msWorkspaces = new ThreadLocal<>();
+    // solver of the run a subproblem belongs to, null for a top-level solver.
+    private final Solver parent;
+
+    // sampling is off while random is null. A zero confidence means a fixed sample size.
+    private Random random;
+    private int sampleSize;
+    private double confidence;
+    private int lastNumSampled;
+    private int lastNumBfs;
+
+    private final List<SolverListener> listeners = new ArrayList<>();
+    // bytes allocated by pool workers while running this solver's tasks, counted only with listeners.
+    private final LongAdder workerAllocated = new LongAdder();
+    private boolean splitComponents;
+    private BatchMode batchMode = BatchMode.exact();
+
+    // betweenness a run in untilSplit mode last calculated, and the number of communities at that time.
+    private Problem ranking;
+    private int rankedNumComm;
+
+    // bytes the shortest-path DAGs of a solution may take, 0 while betweenness is not updated incrementally.
+    private long dagMemoryCap;
+
+    // budgets of a run, checked before every iteration and between BFS sources. A cancel request stays
+    // pending until a run ends, so a cancel just before solve is called still stops that run.
+    private long timeLimitMillis;
+    private long memoryBudget;
+    private volatile boolean cancelRequested;
+    private volatile Thread runner;
+    private long deadline;
+
+    // checkpointing is off while checkpointPath is null, otherwise a checkpoint is written every
+    // checkpointIters iterations or checkpointMillis milliseconds, whichever is set.
+    private Path checkpointPath;
+    private int checkpointIters;
+    private long checkpointMillis;
+
+    public Solver() {
+        this(1);
+    }
+
+    public Solver(int numThreads) {
+        if (numThreads <= 0) {
+            String msg = String.format("Number of threads must be positive, received %d instead.", numThreads);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.numThreads = numThreads;
+        pool = numThreads > 1 ? new ForkJoinPool(numThreads) : null;
+        ownsPool = true;
+        parent = null;
+    }
+
+    // runs on a pool the caller owns, e.g. one shared by many solvers, using as many threads as it has.
+    public Solver(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException("Pool is null.");
+        }
+
+        numThreads = pool.getParallelism();
+        this.pool = pool;
+        ownsPool = false;
+        parent = null;
+    }
+
+    // serial solver of a subproblem, which stops whenever its parent runs out of budget.
+    Solver(Solver parent) {
+        numThreads = 1;
+        pool = null;
+        ownsPool = true;
+        this.parent = parent;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    // shuts down the pool the solver created, a solver cannot run again once closed.
+    @Override
+    public void close() {
+        closed = true;
+
+        if (ownsPool && pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    //<editor-fold desc="Sampling">
+    public void setSampleSize(int sampleSize, long seed) {
+        if (sampleSize <= 0) {
+            String msg = String.format("Sample size must be positive, received %d instead.", sampleSize);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.sampleSize = sampleSize;
+        confidence = 0.0;
+        random = new Random(seed);
+    }
+
+    public void setAdaptiveSampling(double confidence, int batchSize, long seed) {
+        if (confidence <= 0.0 || confidence >= 1.0) {
+            String msg = String.format("Confidence must be within (0, 1), received %f instead.", confidence);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (batchSize <= 0) {
+            String msg = String.format("Batch size must be positive, received %d instead.", batchSize);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.confidence = confidence;
+        sampleSize = batchSize;
+        random = new Random(seed);
+    }
+
+    public void setExact() {
+        random = null;
+        sampleSize = 0;
+        confidence = 0.0;
+    }
+
+    public boolean isSampling() {
+        return random != null;
+    }
+
+    public int getLastNumSampled() {
+        return lastNumSampled;
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Components">
+    // once the graph has fallen apart, each component with a live edge is split on its own, concurrently
+    // with the others, and the runs are merged by betweenness. Ignored while sampling.
+    public void setSplitComponents(boolean splitComponents) {
+        this.splitComponents = splitComponents;
+    }
+
+    public boolean isSplittingComponents() {
+        return splitComponents;
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Batching">
+    // components are only split into subproblems in the exact mode.
+    public void setBatchMode(BatchMode batchMode) {
+        if (batchMode == null) {
+            throw new NullPointerException("Batch mode is null.");
+        }
+
+        this.batchMode = batchMode;
+    }
+
+    public BatchMode getBatchMode() {
+        return batchMode;
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Incremental betweenness">
+    // keeps the shortest-path DAG of every source, so that removing an edge only recalculates the sources
+    // whose DAG used it. A component is kept while its DAGs fit within memoryCap bytes, taking
+    // SourceDags.BYTES_PER_ENTRY per pair of its nodes, otherwise it is recalculated whole as before. The cap
+    // holds for each solution, and graphs with fractional weights are always recalculated whole.
+    public void setIncrementalBetweenness(long memoryCap) {
+        if (memoryCap <= 0) {
+            String msg = String.format("Memory cap must be positive, received %d bytes instead.", memoryCap);
+            throw new IllegalArgumentException(msg);
+        }
+
+        dagMemoryCap = memoryCap;
+    }
+
+    public void disableIncrementalBetweenness() {
+        dagMemoryCap = 0;
+    }
+
+    public boolean isIncrementalBetweenness() {
+        return dagMemoryCap > 0;
+    }
+
+    // the DAGs kept for s, created on first use. Null while they are not used, as they need exact path lengths.
+    private SourceDags getSourceDags(Solution s) {
+        CsrGraph g = s.getGraph();
+
+        if (dagMemoryCap == 0 || isSampling() || !(hasHopLengths(g) || g.hasIntegerWeights())) {
+            return null;
+        }
+
+        if (s.getSourceDags() == null) {
+            s.setSourceDags(new SourceDags(s.getNumVert(), dagMemoryCap));
+        }
+
+        return s.getSourceDags();
+    }
+
+    // drops the DAGs of kept components whose nodes are all recalculated, so that their memory is credited
+    // back and the pieces a split left behind are kept again at their own size.
+    private void dropRecalculated(Solution s, SourceDags dags, int[] sources) {
+        int[] mark = s.getComponents().getMark();
+        int stamp = s.getComponents().nextStamp();
+
+        for (int src : sources) {
+            mark[src] = stamp;
+        }
+
+        // members of a component that is not dropped are marked stamp - 1, so it is only checked once.
+        for (int src : sources) {
+            if (!dags.isKept(src) || mark[src] != stamp) {
+                continue;
+            }
+
+            int[] group = dags.getGroup(src);
+            boolean covered = true;
+
+            for (int node : group) {
+                if (mark[node] != stamp) {
+                    covered = false;
+                    break;
+                }
+            }
+
+            if (covered) {
+                dags.drop(src);
+            } else {
+                for (int node : group) {
+                    mark[node] = stamp - 1;
+                }
+            }
+        }
+    }
+
+    // keeps the DAGs of the components of sources that are not kept yet, as far as the cap allows. Every
+    // node of such a component is stale, so all of its DAGs are stored by the calculation that follows.
+    private void keepDags(Solution s, SourceDags dags, int[] sources) {
+        int[] offsets = s.getGraph().getOffsets();
+        int[] targets = s.getGraph().getTargets();
+        int[] edgeIds = s.getGraph().getEdgeIds();
+
+        ComponentData comps = s.getComponents();
+        int[] mark = comps.getMark();
+        int[] queue = comps.getQueue1();
+        int stamp = comps.nextStamp();
+
+        for (int src : sources) {
+            if (dags.isKept(src) || mark[src] == stamp) {
+                continue;
+            }
+
+            mark[src] = stamp;
+            queue[0] = src;
+
+            int head = 0;
+            int tail = 1;
+
+            while (head < tail) {
+                int node = queue[head++];
+
+                for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                    int n = targets[slot];
+
+                    if (s.isEdgeAlive(edgeIds[slot]) && mark[n] != stamp) {
+                        mark[n] = stamp;
+                        queue[tail++] = n;
+                    }
+                }
+            }
+
+            dags.tryKeep(queue, tail);
+        }
+    }
+
+    // takes the contributions of the sources whose DAG uses a killed edge out of the cache, and leaves those
+    // sources pending for the next calculation. Components where more than half the sources are affected
+    // are cheaper to recalculate whole, their killed edges are returned to be invalidated as before.
+    private Set<Integer> takeOutAffected(Solution s, SourceDags dags, Set<Integer> edgesToKill) {
+        BetwCache cache = s.getBetwCache();
+
+        // the DAGs are only all current right after a calculation.
+        if (cache.getNumStale() > 0 || dags.getNumPending() > 0) {
+            return edgesToKill;
+        }
+
+        CsrGraph g = s.getGraph();
+        boolean hops = hasHopLengths(g);
+
+        // components before the kill, found from the nodes reached by an endpoint.
+        int[] compOf = new int[s.getNumVert()];
+        Arrays.fill(compOf, -1);
+        List<List<Integer>> compEdges = new ArrayList<>();
+        List<List<Integer>> compAffected = new ArrayList<>();
+        boolean[] affected = new boolean[s.getNumVert()];
+
+        Set<Integer> toInvalidate = new HashSet<>();
+
+        for (int edge : edgesToKill) {
+            int u = g.getEdgeSource(edge);
+            int v = g.getEdgeTarget(edge);
+
+            if (!s.isEdgeAlive(edge)) {
+                continue;
+            }
+
+            if (!dags.isKept(u)) {
+                toInvalidate.add(edge);
+                continue;
+            }
+
+            if (compOf[u] < 0) {
+                for (int i = 0; i < dags.getNumReached(u); i++) {
+                    compOf[dags.getReached(u, i)] = compEdges.size();
+                }
+
+                compEdges.add(new ArrayList<>());
+                compAffected.add(new ArrayList<>());
+            }
+
+            int comp = compOf[u];
+            double step = hops ? 1.0 : g.getWeight(edge);
+            compEdges.get(comp).add(edge);
+
+            for (int i = 0; i < dags.getNumReached(u); i++) {
+                int src = dags.getReached(u, i);
+                double lengthU = dags.getLength(src, u);
+                double lengthV = dags.getLength(src, v);
+
+                if (!affected[src] && (lengthU + step == lengthV || lengthV + step == lengthU)) {
+                    affected[src] = true;
+                    compAffected.get(comp).add(src);
+                }
+            }
+        }
+
+        List<Integer> sources = new ArrayList<>();
+        for (int comp = 0; comp < compEdges.size(); comp++) {
+            int size = dags.getNumReached(g.getEdgeSource(compEdges.get(comp).get(0)));
+
+            if (2 * compAffected.get(comp).size() > size) {
+                toInvalidate.addAll(compEdges.get(comp));
+            } else {
+                sources.addAll(compAffected.get(comp));
+            }
+        }
+
+        int[] srcs = new int[sources.size()];
+        for (int i = 0; i < srcs.length; i++) {
+            srcs[i] = sources.get(i);
+        }
+
+        List<Callable<double[]>> tasks = new ArrayList<>();
+        for (int lo = 0; lo < srcs.length; lo += SOURCES_PER_TASK) {
+            int start = lo;
+            int end = Math.min(lo + SOURCES_PER_TASK, srcs.length);
+            tasks.add(() -> calcPartialDagBetw(srcs, start, end, s, dags, hops));
+        }
+
+        List<double[]> partials;
+        try {
+            partials = runAll(tasks);
+        } catch (Truncated e) {
+            // interrupted before anything was taken out, recalculating whole is still correct.
+            return edgesToKill;
+        }
+
+        for (double[] partial : partials) {
+            for (int edge = 0; edge < partial.length; edge++) {
+                if (partial[edge] != 0.0) {
+                    cache.incBetw(edge, -partial[edge]);
+                }
+            }
+        }
+
+        for (int src : srcs) {
+            dags.addPending(src);
+        }
+
+        return toInvalidate;
+    }
+
+    // the betweenness the stored DAGs of sources contribute, over the live edges. An edge is on a DAG
+    // exactly when the forward search took it as a predecessor edge, since path lengths are exact.
+    private double[] calcPartialDagBetw(int[] sources, int from, int to, Solution s, SourceDags dags,
+                                        boolean hops) {
+        CsrGraph g = s.getGraph();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        int[] edgeIds = g.getEdgeIds();
+
+        double[] betw = new double[s.getNumEdge()];
+        BfsWorkspace ws = getWorkspace(s);
+        ws.reset();
+        double[] delta = ws.getDelta();
+
+        for (int i = from; i < to; i++) {
+            int src = sources[i];
+
+            for (int k = dags.getNumReached(src) - 1; k > 0; k--) {
+                int node = dags.getReached(src, k);
+                double length = dags.getLength(src, node);
+                double proportion = (1.0 + delta[node]) / dags.getSigma(src, node);
+
+                for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                    int edge = edgeIds[slot];
+
+                    if (!s.isEdgeAlive(edge)) continue;
+
+                    int up = targets[slot];
+
+                    if (dags.getLength(src, up) + (hops ? 1.0 : g.getWeight(edge)) == length) {
+                        double inc = dags.getSigma(src, up) * proportion;
+                        betw[edge] += inc;
+                        delta[up] += inc;
+                    }
+                }
+            }
+
+            for (int k = 0; k < dags.getNumReached(src); k++) {
+                delta[dags.getReached(src, k)] = 0.0;
+            }
+        }
+
+        return betw;
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Listeners">
+    public void addListener(SolverListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("Listener is null.");
+        }
+
+        listeners.add(listener);
+    }
+
+    public void removeListener(SolverListener listener) {
+        listeners.remove(listener);
+    }
+
+    // number of BFS runs in the last betweenness calculation, sampled or stale sources only.
+    public int getLastNumBfs() {
+        return lastNumBfs;
+    }
+
+    // bytes allocated so far by the calling thread and by pool workers running this solver's tasks.
+    private long allocatedBytes() {
+        long own = threadAllocatedBytes(Thread.currentThread());
+        return own < 0 ? -1 : own + workerAllocated.sum();
+    }
+
+    private static long threadAllocatedBytes(Thread thread) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(thread.getId());
+            }
+        }
+
+        return -1;
+    }
+
+    // tasks that add what they allocate to workerAllocated, unless they run on the calling thread,
+    // whose allocations are already counted.
+    private <T> List<Callable<T>> countAllocation(List<Callable<T>> tasks) {
+        Thread caller = Thread.currentThread();
+        List<Callable<T>> counted = new ArrayList<>(tasks.size());
+
+        for (Callable<T> task : tasks) {
+            counted.add(() -> {
+                Thread worker = Thread.currentThread();
+                long before = worker == caller ? -1 : threadAllocatedBytes(worker);
+
+                try {
+                    return task.call();
+                } finally {
+                    if (before >= 0) {
+                        workerAllocated.add(threadAllocatedBytes(worker) - before);
+                    }
+                }
+            });
+        }
+
+        return counted;
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Budgets">
+    public void setTimeLimit(long millis) {
+        if (millis <= 0) {
+            String msg = String.format("Time limit must be positive, received %d ms instead.", millis);
+            throw new IllegalArgumentException(msg);
+        }
+
+        timeLimitMillis = millis;
+    }
+
+    // bytes of heap in use, as reported by Runtime, so it includes garbage not yet collected.
+    public void setMemoryBudget(long bytes) {
+        if (bytes <= 0) {
+            String msg = String.format("Memory budget must be positive, received %d bytes instead.", bytes);
+            throw new IllegalArgumentException(msg);
+        }
+
+        memoryBudget = bytes;
+    }
+
+    public void clearBudgets() {
+        timeLimitMillis = 0;
+        memoryBudget = 0;
+    }
+
+    // may be called from any thread. The run returns the solution as of its last completed iteration.
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    private boolean isOverBudget() {
+        if (cancelRequested) {
+            return true;
+        }
+
+        Thread thread = runner;
+        if (thread != null && thread.isInterrupted()) {
+            return true;
+        }
+
+        if (timeLimitMillis > 0 && System.nanoTime() - deadline >= 0) {
+            return true;
+        }
+
+        if (memoryBudget > 0) {
+            Runtime rt = Runtime.getRuntime();
+            return rt.totalMemory() - rt.freeMemory() > memoryBudget;
+        }
+
+        return false;
+    }
+
+    private void checkBudget() {
+        Solver owner = parent != null ? parent : this;
+
+        if (owner.isOverBudget()) {
+            owner.cancelRequested = true;
+            throw new Truncated();
+        }
+    }
+
+    // unwinds an iteration that ran out of budget, the solution is left as of the previous iteration.
+    private static class Truncated extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Truncated() {
+            super("Run stopped before it finished.", null, false, false);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Checkpoints">
+    public void setCheckpointByIterations(Path path, int numIter) {
+        if (path == null) {
+            throw new NullPointerException("Checkpoint path is null.");
+        }
+
+        if (numIter <= 0) {
+            String msg = String.format("Checkpoint interval must be positive, received %d instead.", numIter);
+            throw new IllegalArgumentException(msg);
+        }
+
+        checkpointPath = path;
+        checkpointIters = numIter;
+        checkpointMillis = 0;
+    }
+
+    public void setCheckpointByTime(Path path, long millis) {
+        if (path == null) {
+            throw new NullPointerException("Checkpoint path is null.");
+        }
+
+        if (millis <= 0) {
+            String msg = String.format("Checkpoint interval must be positive, received %d ms instead.", millis);
+            throw new IllegalArgumentException(msg);
+        }
+
+        checkpointPath = path;
+        checkpointIters = 0;
+        checkpointMillis = millis;
+    }
+
+    public void disableCheckpoint() {
+        checkpointPath = null;
+        checkpointIters = 0;
+        checkpointMillis = 0;
+    }
+
+    public Solution resume(Path checkpoint, Graph graph) throws IOException {
+        return resume(checkpoint, new CsrGraph(graph));
+    }
+
+    // continues a run from the last iteration completed before the checkpoint was written, with the
+    // threshold it was started with.
+    public Solution resume(Path checkpoint, CsrGraph graph) throws IOException {
+        Checkpoint cp = Checkpoint.read(checkpoint, graph);
+
+        if (cp.getThreshold() < 0) {
+            String msg = String.format("Checkpoint %s was written with a custom stop policy, pass it to resume.",
+                    checkpoint);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return run(cp.getSolution(), StopPolicy.nonImproving(cp.getThreshold()), cp.getThreshold());
+    }
+
+    public Solution resume(Path checkpoint, Graph graph, StopPolicy policy) throws IOException {
+        return resume(checkpoint, new CsrGraph(graph), policy);
+    }
+
+    public Solution resume(Path checkpoint, CsrGraph graph, StopPolicy policy) throws IOException {
+        if (policy == null) {
+            throw new NullPointerException("Stop policy is null.");
+        }
+
+        return run(Checkpoint.read(checkpoint, graph).getSolution(), policy, -1);
+    }
+
+    private void writeCheckpoint(Solution s, int threshold) {
+        try {
+            new Checkpoint(s, threshold).write(checkpointPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    //</editor-fold>
 
-public class Solver {
     public Solution solve(Graph graph, int threshold) {
-        System.out.println("Solver started");
+        return solve(new CsrGraph(graph), threshold);
+    }
+
+    public Solution solve(CsrGraph graph, int threshold) {
+        return run(Solution.fromCsr(graph), StopPolicy.nonImproving(threshold), threshold);
+    }
+
+    public Solution solve(Graph graph, StopPolicy policy) {
+        return solve(new CsrGraph(graph), policy);
+    }
+
+    public Solution solve(CsrGraph graph, StopPolicy policy) {
+        if (policy == null) {
+            throw new NullPointerException("Stop policy is null.");
+        }
+
+        return run(Solution.fromCsr(graph), policy, -1);
+    }
+
+    // threshold is only kept for checkpoints, it is negative when the run uses another policy.
+    private Solution run(Solution s, StopPolicy policy, int threshold) {
+        if (closed) {
+            throw new IllegalStateException("Solver is closed.");
+        }
+
+        RemovalLog log = s.getRemovalLog();
+        SolverState state = new SolverState(s);
+
+        for (int iter = 1; iter <= log.getNumIter(); iter++) {
+            state.advance(log.getObj(iter));
+        }
+
+        // a resumed solution has no community labels yet, which policies may look at.
+        if (log.getNumIter() > 0) {
+            findCommSet(s, new Problem(s.getNumEdge(), log.getNumIter()));
+        }
+
+        int lastCheckpointIter = state.getIter();
+        long lastCheckpointTime = System.nanoTime();
+
+        runner = Thread.currentThread();
+        deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+
+        // a run that throws must not leave its thread or a cancel behind for the next one.
+        try {
+            for (SolverListener listener : listeners) {
+                listener.onStart(s);
+            }
+
+            Subproblems subproblems = null;
+            int numCommChecked = 0;
+            ranking = null;
+
+            while (s.getNumAliveEdges() > 0 && !policy.shouldStop(state)) {
+                int currIter = state.getIter() + 1;
+                Problem p = new Problem(s.getNumEdge(), currIter);
+                long allocated = listeners.isEmpty() ? -1 : allocatedBytes();
+
+                long start = System.nanoTime();
+                try {
+                    checkBudget();
+                    ComponentData comps = s.getComponents();
+
+                    if (subproblems == null && splitComponents && !isSampling()
+                            && batchMode.getKind() == BatchMode.Kind.EXACT
+                            && comps.isLabelled() && comps.getNumComm() > numCommChecked) {
+                        numCommChecked = comps.getNumComm();
+                        subproblems = Subproblems.of(Subproblem.split(s, this));
+                    }
+
+                    if (subproblems != null) {
+                        takeSteps(subproblems, p);
+                    } else if (batchMode.getKind() == BatchMode.Kind.UNTIL_SPLIT) {
+                        takeFromRanking(s, p);
+                    } else {
+                        getEdgesToKill(s, p);
+                    }
+                } catch (Truncated e) {
+                    s.setTruncated(true);
+                    break;
+                }
+                long betwDone = System.nanoTime();
+                killEdges(s, p);
+                long killDone = System.nanoTime();
+                findCommSet(s, p);
+                long findCommDone = System.nanoTime();
+                applyMod(s, p);
+                long modDone = System.nanoTime();
+
+                s.addResultAndSetOpt(p.getMod(), p.getEdgesToKill());
+                state.advance(p.getMod());
+
+                if (state.getOptIter() == currIter) {
+                    s.setOptCommSets(p.getCommunitiesSet());
+                }
+
+                if (!listeners.isEmpty()) {
+                    if (allocated >= 0) {
+                        allocated = allocatedBytes() - allocated;
+                    }
+
+                    IterationEvent event = new IterationEvent(currIter, betwDone - start, killDone - betwDone,
+                            findCommDone - killDone, modDone - findCommDone, lastNumBfs, p.getEdgesToKill(),
+                            p.getNumComm(), state.getMod(), state.getOptMod(), allocated);
+
+                    for (SolverListener listener : listeners) {
+                        listener.onIteration(event);
+                    }
+                }
+
+                if (checkpointPath != null) {
+                    boolean due = checkpointIters > 0
+                            ? currIter - lastCheckpointIter >= checkpointIters
+                            : System.nanoTime() - lastCheckpointTime >= checkpointMillis * 1_000_000L;
+
+                    if (due) {
+                        writeCheckpoint(s, threshold);
+                        lastCheckpointIter = currIter;
+                        lastCheckpointTime = System.nanoTime();
+                    }
+                }
+            }
+        } finally {
+            runner = null;
+            cancelRequested = false;
+        }
+
+        if (checkpointPath != null && lastCheckpointIter != state.getIter()) {
+            writeCheckpoint(s, threshold);
+        }
+
+        for (SolverListener listener : listeners) {
+            listener.onFinish(s);
+        }
+
+        return s;
+    }
+
+    //<editor-fold desc="Subproblems">
+    // subproblems of a run, ready ones are ordered by the betweenness of their next step.
+    private static class Subproblems {
+        final PriorityQueue<Subproblem> ready = new PriorityQueue<>(
+                (a, b) -> Double.compare(b.peekStep().getBetw(), a.peekStep().getBetw()));
+        // subproblems that ran out of steps or are running low, filled together on the next refill.
+        final List<Subproblem> toFill = new ArrayList<>();
+        int numEmpty;
+
+        // null unless the graph holds at least two components with a live edge.
+        static Subproblems of(List<Subproblem> list) {
+            if (list.size() < 2) {
+                return null;
+            }
+
+            Subproblems subproblems = new Subproblems();
+            for (Subproblem sub : list) {
+                sub.setQueued(true);
+                subproblems.toFill.add(sub);
+            }
+
+            subproblems.numEmpty = list.size();
+            return subproblems;
+        }
+    }
+
+    // takes the next step of every subproblem whose next step has the highest betweenness, as the
+    // serial run would kill all edges tied for the highest betweenness across the graph.
+    private void takeSteps(Subproblems subproblems, Problem p) {
+        if (subproblems.numEmpty > 0) {
+            fill(subproblems);
+        }
+
+        PriorityQueue<Subproblem> ready = subproblems.ready;
+        double max = ready.peek().peekStep().getBetw();
+        Set<Integer> edgesToKill = new HashSet<>();
+        List<Subproblem> taken = new ArrayList<>();
+        lastNumBfs = 0;
+
+        while (!ready.isEmpty() && ready.peek().peekStep().getBetw() >= max - EPSILON) {
+            Subproblem sub = ready.poll();
+            Subproblem.Step step = sub.pollStep();
+
+            for (int edge : step.getEdges()) {
+                edgesToKill.add(edge);
+            }
+
+            lastNumBfs += step.getNumBfs();
+            taken.add(sub);
+        }
+
+        for (Subproblem sub : taken) {
+            if (sub.hasStep()) {
+                ready.add(sub);
+            } else if (!sub.isFinished()) {
+                subproblems.numEmpty++;
+            }
+
+            if (!sub.isQueued() && !sub.isFinished() && sub.getNumSteps() < STEPS_AHEAD / 2) {
+                sub.setQueued(true);
+                subproblems.toFill.add(sub);
+            }
+        }
+
+        p.setEdgesToKill(edgesToKill);
+    }
+
+    // subproblems running low are topped up along with the empty ones, so refills keep the pool busy.
+    private void fill(Subproblems subproblems) {
+        List<Callable<Subproblem>> tasks = new ArrayList<>();
+        List<Subproblem> wereEmpty = new ArrayList<>();
+
+        for (Subproblem sub : subproblems.toFill) {
+            tasks.add(() -> sub.fill(STEPS_AHEAD));
+
+            if (!sub.hasStep()) {
+                wereEmpty.add(sub);
+            }
+        }
+
+        runAll(tasks);
+
+        for (Subproblem sub : subproblems.toFill) {
+            sub.setQueued(false);
+        }
+
+        for (Subproblem sub : wereEmpty) {
+            if (sub.hasStep()) {
+                subproblems.ready.add(sub);
+            }
+        }
+
+        subproblems.toFill.clear();
+        subproblems.numEmpty = 0;
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Calculate betweenness">
+    public void getEdgesToKill(Solution s, Problem p) {
+        calcBetw(s, p);
+        p.setEdgesToKill(selectEdges(s, p, batchMode));
+    }
+
+    // edges within EPSILON of the highest betweenness count as tied with it, so ties do not depend on the
+    // order the betweenness was summed in. Once all edges are dead there is nothing left to kill.
+    private Set<Integer> selectEdges(Solution s, Problem p, BatchMode mode) {
+        double max = 0;
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            if (s.isEdgeAlive(edge) && max < p.getBetw(edge)) {
+                max = p.getBetw(edge);
+            }
+        }
+
+        double floor = max - EPSILON;
+        if (mode.getKind() == BatchMode.Kind.WITHIN_EPSILON) {
+            floor = Math.min(floor, (1.0 - mode.getEpsilon()) * max);
+        }
+
+        Set<Integer> edgesToKill = new HashSet<>();
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            if (s.isEdgeAlive(edge) && p.getBetw(edge) >= floor) {
+                edgesToKill.add(edge);
+            }
+        }
+
+        if (mode.getKind() == BatchMode.Kind.TOP_K && edgesToKill.size() < mode.getK()) {
+            // the lowest of the best edges so far sits on top, lower betweenness and then higher id first.
+            int numMore = mode.getK() - edgesToKill.size();
+            PriorityQueue<Integer> best = new PriorityQueue<>(numMore + 1, (a, b) -> p.getBetw(a) != p.getBetw(b)
+                    ? Double.compare(p.getBetw(a), p.getBetw(b))
+                    : Integer.compare(b, a));
+
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                if (s.isEdgeAlive(edge) && p.getBetw(edge) < floor) {
+                    best.add(edge);
+
+                    if (best.size() > numMore) {
+                        best.poll();
+                    }
+                }
+            }
+
+            edgesToKill.addAll(best);
+        }
+
+        return edgesToKill;
+    }
+
+    // reuses the betweenness last calculated until a removal splits a community, see BatchMode.untilSplit.
+    private void takeFromRanking(Solution s, Problem p) {
+        ComponentData comps = s.getComponents();
+
+        // a fresh run has no community labels yet, which tell when a community splits.
+        if (!comps.isLabelled()) {
+            findCommSet(s, new Problem(s.getNumEdge(), p.getIter()));
+        }
+
+        if (ranking == null || comps.getNumComm() != rankedNumComm) {
+            getEdgesToKill(s, p);
+            ranking = p;
+            rankedNumComm = comps.getNumComm();
+        } else {
+            p.setEdgesToKill(selectEdges(s, ranking, BatchMode.exact()));
+            lastNumBfs = 0;
+        }
+    }
+
+    void calcBetw(Solution s, Problem p) {
+        if (isSampling()) {
+            calcSampledBetw(s, p);
+            return;
+        }
+
+        BetwCache cache = s.getBetwCache();
+        SourceDags dags = getSourceDags(s);
+        int[] sources = exportSources(cache, s.getSourceDags());
+        lastNumBfs = sources.length;
+
+        if (dags != null) {
+            dropRecalculated(s, dags, sources);
+            keepDags(s, dags, sources);
+        }
+
+        // only components that lost an edge are recalculated, the rest keep their cached betweenness.
+        for (double[] partial : runAll(splitSources(sources, 0, sources.length, s, false))) {
+            for (int edge = 0; edge < partial.length; edge++) {
+                if (partial[edge] != 0.0) {
+                    cache.incBetw(edge, partial[edge]);
+                }
+            }
+        }
+
+        cache.clearStale();
+
+        // DAGs are only kept current while they are in use, once they are not they are dropped.
+        if (s.getSourceDags() != null) {
+            s.getSourceDags().clearPending();
+
+            if (dags == null) {
+                s.setSourceDags(null);
+            }
+        }
+
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            if (cache.getBetw(edge) > 0.0) {
+                p.incBetw(edge, cache.getBetw(edge));
+            }
+        }
+    }
+
+    // stale nodes followed by pending sources that are not stale.
+    private int[] exportSources(BetwCache cache, SourceDags dags) {
+        int[] stale = cache.exportStaleNodes();
+
+        if (dags == null || dags.getNumPending() == 0) {
+            return stale;
+        }
+
+        int[] sources = Arrays.copyOf(stale, stale.length + dags.getNumPending());
+        int numSources = stale.length;
+
+        for (int i = 0; i < dags.getNumPending(); i++) {
+            if (!cache.isStale(dags.getPending(i))) {
+                sources[numSources++] = dags.getPending(i);
+            }
+        }
+
+        return Arrays.copyOf(sources, numSources);
+    }
+
+    // sources are chunked independently of the thread count so the merged sums are reproducible. Too few
+    // sources to keep every thread busy are searched one at a time on all threads instead.
+    private List<Callable<double[]>> splitSources(int[] sources, int from, int to, Solution s, boolean moments) {
+        List<Callable<double[]>> tasks = new ArrayList<>();
+        boolean levels = pool != null && to - from < numThreads && to - from <= SOURCES_PER_TASK
+                && s.getNumVert() >= MIN_LEVEL_PARALLEL_VERT && hasHopLengths(s.getGraph());
+
+        for (int lo = from; lo < to; lo += SOURCES_PER_TASK) {
+            int start = lo;
+            int end = Math.min(lo + SOURCES_PER_TASK, to);
+
+            if (moments) {
+                tasks.add(() -> calcPartialMoments(sources, start, end, s, levels));
+            } else {
+                tasks.add(() -> calcPartialBetw(sources, start, end, s, levels));
+            }
+        }
+
+        return tasks;
+    }
+
+    // estimates betweenness from a uniform sample of sources, scaled up to all sources. Sampled results
+    // bypass the betweenness cache and are never written to it, while killEdges still invalidates the
+    // components that lose an edge, so exact mode only reads exact entries after a switch back.
+    private void calcSampledBetw(Solution s, Problem p) {
+        int numVert = s.getNumVert();
+        int numEdge = s.getNumEdge();
+
+        int[] sources = new int[numVert];
+        for (int node = 0; node < numVert; node++) {
+            sources[node] = node;
+        }
+
+        double[] sum = new double[numEdge];
+        int numSampled;
+
+        if (confidence == 0.0) {
+            numSampled = Math.min(sampleSize, numVert);
+            shuffle(sources, 0, numSampled);
+
+            for (double[] partial : runAll(splitSources(sources, 0, numSampled, s, false))) {
+                for (int edge = 0; edge < numEdge; edge++) {
+                    sum[edge] += partial[edge];
+                }
+            }
+        } else {
+            double[] sumSq = new double[numEdge];
+            double z = Stats.normalQuantile(0.5 + confidence / 2);
+
+            numSampled = 0;
+            while (numSampled < numVert) {
+                int to = Math.min(numSampled + sampleSize, numVert);
+                shuffle(sources, numSampled, to);
+
+                for (double[] partial : runAll(splitSources(sources, numSampled, to, s, true))) {
+                    for (int edge = 0; edge < numEdge; edge++) {
+                        sum[edge] += partial[edge];
+                        sumSq[edge] += partial[numEdge + edge];
+                    }
+                }
+
+                numSampled = to;
+
+                if (isTopSeparated(sum, sumSq, numSampled, z)) {
+                    break;
+                }
+            }
+        }
+
+        lastNumSampled = numSampled;
+        lastNumBfs = numSampled;
+
+        if (numSampled == 0) {
+            return;
+        }
+
+        double scale = (double) numVert / numSampled;
+        for (int edge = 0; edge < numEdge; edge++) {
+            if (sum[edge] > 0.0) {
+                p.incBetw(edge, sum[edge] * scale);
+            }
+        }
+    }
+
+    // partial Fisher-Yates shuffle, leaves a uniform sample of the remaining sources in [from, to).
+    private void shuffle(int[] sources, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int j = i + random.nextInt(sources.length - i);
+            int temp = sources[i];
+            sources[i] = sources[j];
+            sources[j] = temp;
+        }
+    }
+
+    // whether the edge with the largest mean contribution per source beats the runner-up with the
+    // given z score. Edges within EPSILON of the top are treated as tied with it.
+    private boolean isTopSeparated(double[] sum, double[] sumSq, int numSampled, double z) {
+        int top = -1;
+        for (int edge = 0; edge < sum.length; edge++) {
+            if (top < 0 || sum[edge] > sum[top]) {
+                top = edge;
+            }
+        }
+
+        int runnerUp = -1;
+        for (int edge = 0; edge < sum.length; edge++) {
+            if (sum[edge] < sum[top] - EPSILON && (runnerUp < 0 || sum[edge] > sum[runnerUp])) {
+                runnerUp = edge;
+            }
+        }
+
+        if (runnerUp < 0) {
+            return true;
+        }
+
+        double mean1 = sum[top] / numSampled;
+        double mean2 = sum[runnerUp] / numSampled;
+        double var1 = Math.max(sumSq[top] / numSampled - mean1 * mean1, 0.0) / numSampled;
+        double var2 = Math.max(sumSq[runnerUp] / numSampled - mean2 * mean2, 0.0) / numSampled;
+
+        if (var1 + var2 == 0.0) {
+            return true;
+        }
+
+        return mean1 - mean2 >= z * Math.sqrt(var1 + var2);
+    }
+
+    private <T> List<T> runAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+
+        try {
+            // a single task runs on the calling thread, which may then hand parts of it to the pool.
+            if (pool == null || tasks.size() == 1) {
+                for (Callable<T> task : tasks) {
+                    results.add(task.call());
+                }
+            } else {
+                for (Future<T> f : pool.invokeAll(listeners.isEmpty() ? tasks : countAllocation(tasks))) {
+                    results.add(f.get());
+                }
+            }
+        } catch (Truncated e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Truncated();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Truncated) {
+                throw (Truncated) e.getCause();
+            }
+
+            throw new IllegalStateException("Betweenness worker failed.", e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException("Betweenness worker failed.", e);
+        }
+
+        return results;
+    }
+
+    private double[] calcPartialBetw(int[] sources, int from, int to, Solution s, boolean levels) {
+        double[] betw = new double[s.getNumEdge()];
+        SourceDags dags = isSampling() ? null : s.getSourceDags();
+        boolean hops = hasHopLengths(s.getGraph());
+
+        // kept DAGs are copied from the single-source workspace.
+        if (hops && dags == null && !levels && to - from > 1
+                && MsBfsWorkspace.bytesFor(s.getNumVert()) <= MAX_MS_BFS_BYTES) {
+            MsBfsWorkspace ws = getMsWorkspace(s);
+
+            for (int lo = from; lo < to; lo += MsBfsWorkspace.WIDTH) {
+                checkBudget();
+                incFlowAndBetwViaMsBfs(sources, lo, Math.min(lo + MsBfsWorkspace.WIDTH, to), s, ws, betw);
+            }
+
+            return betw;
+        }
+
+        BfsWorkspace ws = getWorkspace(s);
+
+        for (int i = from; i < to; i++) {
+            checkBudget();
+
+            if (levels) {
+                incFlowAndBetwViaLevels(sources[i], s, ws, betw);
+            } else {
+                incFlowAndBetw(sources[i], s, ws, betw);
+            }
+
+            if (dags != null && dags.isKept(sources[i])) {
+                dags.store(sources[i], ws, hops);
+            }
+        }
+
+        return betw;
+    }
+
+    // sums and sums of squares of the contribution of each source, stored one after the other.
+    private double[] calcPartialMoments(int[] sources, int from, int to, Solution s, boolean levels) {
+        int numEdge = s.getNumEdge();
+        double[] moments = new double[2 * numEdge];
+        double[] betw = new double[numEdge];
+        BfsWorkspace ws = getWorkspace(s);
+
+        for (int i = from; i < to; i++) {
+            checkBudget();
+
+            if (levels) {
+                incFlowAndBetwViaLevels(sources[i], s, ws, betw);
+            } else {
+                incFlowAndBetw(sources[i], s, ws, betw);
+            }
+
+            for (int edge = 0; edge < numEdge; edge++) {
+                if (betw[edge] != 0.0) {
+                    moments[edge] += betw[edge];
+                    moments[numEdge + edge] += betw[edge] * betw[edge];
+                    betw[edge] = 0.0;
+                }
+            }
+        }
+
+        return moments;
+    }
+
+    private BfsWorkspace getWorkspace(Solution s) {
+        int numSlot = 2 * s.getNumEdge();
+        BfsWorkspace ws = workspaces.get();
+
+        if (ws == null || !ws.fits(s.getNumVert(), numSlot)) {
+            ws = new BfsWorkspace(s.getNumVert(), numSlot);
+            workspaces.set(ws);
+        }
+
+        return ws;
+    }
+
+    private MsBfsWorkspace getMsWorkspace(Solution s) {
+        MsBfsWorkspace ws = msWorkspaces.get();
+
+        if (ws == null || !ws.fits(s.getNumVert())) {
+            ws = new MsBfsWorkspace(s.getNumVert());
+            msWorkspaces.set(ws);
+        }
+
+        return ws;
+    }
+
+    // graphs whose edges all weigh the same have the same shortest paths as the unweighted graph.
+    private static boolean hasHopLengths(CsrGraph g) {
+        return !g.isWeighted() || g.getMinWeight() == g.getMaxWeight();
+    }
+
+    private void incFlowAndBetw(int src, Solution s, BfsWorkspace ws, double[] betw) {
+        CsrGraph g = s.getGraph();
+
+        if (hasHopLengths(g)) {
+            incFlowAndBetwViaBFS(src, s, ws, betw);
+        } else if (g.hasIntegerWeights() && g.getMaxWeight() <= MAX_BUCKET_STEP) {
+            incFlowAndBetwViaDijkstra(src, s, ws, ws.getNodeQueue((int) g.getMaxWeight()), betw);
+        } else {
+            incFlowAndBetwViaDijkstra(src, s, ws, ws.getNodeQueue(-1), betw);
+        }
+    }
+
+    // searches level by level, each level either top-down from the frontier or bottom-up from the nodes not
+    // reached yet, whichever has fewer slots to scan. Every predecessor is needed for the path counts, so a
+    // bottom-up scan reads the whole row of a node, and only pays off once the unreached part of the graph
+    // is smaller than the frontier.
+    private void incFlowAndBetwViaBFS(int src, Solution s, BfsWorkspace ws, double[] betw) {
+        int[] offsets = s.getGraph().getOffsets();
 
-        Solution s = new Solution(graph);
+        int[] dist = ws.getDist();
+        double[] sigma = ws.getSigma();
+        int[] queue = ws.getQueue();
 
-        double optObj = Double.NEGATIVE_INFINITY;
-        double currObj = 0;
-        int currIter = 1;
-        int godMode = 0;
+        ws.reset();
 
-        System.out.println("Iteration started.");
+        dist[src] = 0;
+        sigma[src] = 1.0;
+        queue[0] = src;
 
-        while (currObj >= optObj || godMode < threshold) {
-            if (currIter % 10 == 0) {
-                String msg = String.format("Now on iteration %d \t obj = %f \t opt = %f", currIter, currObj, optObj);
-                System.out.println(msg);
+        int head = 0;
+        int tail = 1;
+        int level = 0;
+        long frontierSlots = offsets[src + 1] - offsets[src];
+        long unvisitedSlots = offsets[s.getNumVert()] - frontierSlots;
+
+        while (head < tail) {
+            // listing the unvisited nodes takes a pass over all of them.
+            long bottomUpCost = ws.isUnvisitedListed() ? unvisitedSlots : unvisitedSlots + s.getNumVert();
+            int end = tail;
+
+            if (frontierSlots > bottomUpCost) {
+                if (!ws.isUnvisitedListed()) {
+                    ws.listUnvisited();
+                }
+
+                tail = searchBottomUp(level, end, s, ws);
+            } else {
+                tail = searchTopDown(head, end, s, ws);
             }
 
-            Problem p = new Problem(s.getNumEdge(), currIter);
+            frontierSlots = 0;
+            for (int i = end; i < tail; i++) {
+                frontierSlots += offsets[queue[i] + 1] - offsets[queue[i]];
+            }
 
-            getEdgesToKill(s, p);
-            killEdges(s, p);
-            calcMod(s, p);
-            currObj = p.getMod();
+            unvisitedSlots -= frontierSlots;
+            head = end;
+            level++;
+        }
 
-            s.addResultAndSetOpt(p.getMod(), p.getEdgesToKill());
+        ws.setNumTouched(tail);
+        accumulateFlow(ws, offsets, betw);
+    }
+
+    // expands the frontier queue[head .. end - 1], returning the new tail of the queue.
+    private static int searchTopDown(int head, int end, Solution s, BfsWorkspace ws) {
+        int[] offsets = s.getGraph().getOffsets();
+        int[] targets = s.getGraph().getTargets();
+        int[] edgeIds = s.getGraph().getEdgeIds();
+
+        int[] dist = ws.getDist();
+        double[] sigma = ws.getSigma();
+        int[] queue = ws.getQueue();
+        int[] predCount = ws.getPredCount();
+        int[] predNode = ws.getPredNode();
+        int[] predEdge = ws.getPredEdge();
+
+        int tail = end;
+
+        for (int i = head; i < end; i++) {
+            int node = queue[i];
+            int next = dist[node] + 1;
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int edge = edgeIds[slot];
+
+                if (!s.isEdgeAlive(edge)) continue;
+
+                int n = targets[slot];
+
+                if (dist[n] < 0) {
+                    dist[n] = next;
+                    queue[tail++] = n;
+                }
+
+                if (dist[n] == next) {
+                    sigma[n] += sigma[node];
+
+                    int k = offsets[n] + predCount[n]++;
+                    predNode[k] = node;
+                    predEdge[k] = edge;
+                }
+            }
+        }
+
+        return tail;
+    }
+
+    // links every unvisited node to its neighbours on the given level, appending the nodes it reaches to the
+    // queue at tail and dropping them from the list, along with nodes reached by top-down steps in between.
+    // Returns the new tail of the queue.
+    private static int searchBottomUp(int level, int tail, Solution s, BfsWorkspace ws) {
+        int[] offsets = s.getGraph().getOffsets();
+        int[] targets = s.getGraph().getTargets();
+        int[] edgeIds = s.getGraph().getEdgeIds();
+
+        int[] dist = ws.getDist();
+        double[] sigma = ws.getSigma();
+        int[] queue = ws.getQueue();
+        int[] predCount = ws.getPredCount();
+        int[] predNode = ws.getPredNode();
+        int[] predEdge = ws.getPredEdge();
+        int[] unvisited = ws.getUnvisited();
+
+        int numLeft = 0;
+
+        for (int i = 0; i < ws.getNumUnvisited(); i++) {
+            int node = unvisited[i];
+
+            if (dist[node] >= 0) continue;
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int edge = edgeIds[slot];
+                int n = targets[slot];
+
+                if (dist[n] != level || !s.isEdgeAlive(edge)) continue;
 
-            if (optObj <= currObj) {
-                optObj = currObj;
-                s.setOptCommSets(p.getCommunitiesSet());
+                sigma[node] += sigma[n];
+
+                int k = offsets[node] + predCount[node]++;
+                predNode[k] = n;
+                predEdge[k] = edge;
+            }
+
+            if (predCount[node] > 0) {
+                dist[node] = level + 1;
+                queue[tail++] = node;
             } else {
-                godMode++;
+                unvisited[numLeft++] = node;
             }
+        }
+
+        ws.setNumUnvisited(numLeft);
+        return tail;
+    }
+
+    // nodes are settled in order of path length, and queue records that order so the flow can be sent back
+    // along it. Lengths of fractional weights within a relative EPSILON count as ties.
+    private void incFlowAndBetwViaDijkstra(int src, Solution s, BfsWorkspace ws, NodeQueue unsettled,
+                                           double[] betw) {
+        CsrGraph g = s.getGraph();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        int[] edgeIds = g.getEdgeIds();
+        double[] weights = g.getWeights();
+        double tolerance = g.hasIntegerWeights() ? 0.0 : EPSILON;
+
+        double[] length = ws.getLength();
+        double[] sigma = ws.getSigma();
+        int[] queue = ws.getQueue();
+        int[] predCount = ws.getPredCount();
+        int[] predNode = ws.getPredNode();
+        int[] predEdge = ws.getPredEdge();
 
-            currIter++;
+        ws.reset();
+
+        length[src] = 0.0;
+        sigma[src] = 1.0;
+        unsettled.add(src, 0.0);
+
+        int tail = 0;
+
+        while (!unsettled.isEmpty()) {
+            int node = unsettled.poll();
+            queue[tail++] = node;
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int edge = edgeIds[slot];
+
+                if (!s.isEdgeAlive(edge)) continue;
+
+                int n = targets[slot];
+                double next = length[node] + weights[edge];
+
+                if (length[n] == Double.POSITIVE_INFINITY) {
+                    unsettled.add(n, next);
+                } else if (!unsettled.contains(n) || next > length[n] + tolerance * next) {
+                    continue;
+                } else if (next < length[n] - tolerance * next) {
+                    unsettled.decrease(n, next);
+                } else {
+                    sigma[n] += sigma[node];
+                    predNode[offsets[n] + predCount[n]] = node;
+                    predEdge[offsets[n] + predCount[n]++] = edge;
+                    continue;
+                }
+
+                // a shorter path replaces every path found so far.
+                length[n] = next;
+                sigma[n] = sigma[node];
+                predCount[n] = 1;
+                predNode[offsets[n]] = node;
+                predEdge[offsets[n]] = edge;
+            }
         }
 
-        return s;
+        ws.setNumTouched(tail);
+        accumulateFlow(ws, offsets, betw);
     }
 
-    //<editor-fold desc="Calculate betweenness">
-    public void getEdgesToKill(Solution s, Problem p) {
-        calcBetw(s, p);
+    // searches from the sources in [from, to) in lock step, bit i of a mask standing for sources[from + i].
+    // A node's row is scanned once per level for all sources reaching it on that level, while path counts
+    // and the flow sent back are still kept per source.
+    private void incFlowAndBetwViaMsBfs(int[] sources, int from, int to, Solution s, MsBfsWorkspace ws,
+                                        double[] betw) {
+        int[] offsets = s.getGraph().getOffsets();
+        int[] targets = s.getGraph().getTargets();
+        int[] edgeIds = s.getGraph().getEdgeIds();
+        int width = MsBfsWorkspace.WIDTH;
 
-        double max = 0;
-        for (int edge = 0; edge < s.getNumEdge(); edge++) {
-            double currBetw = p.getBetw(edge);
+        long[] seen = ws.getSeen();
+        long[] next = ws.getNext();
+        long[] below = ws.getBelow();
+        double[] sigma = ws.getSigma();
+        double[] delta = ws.getDelta();
+        int[] discovered = ws.getDiscovered();
+
+        ws.reset();
+
+        for (int i = 0; i < to - from; i++) {
+            int src = sources[from + i];
+            seen[src] = 1L << i;
+            sigma[src * width + i] = 1.0;
+            ws.addEntry(src, 1L << i);
+        }
+
+        ws.endLevel();
+
+        // the search ends with an empty level.
+        for (int level = 0; ws.getLevelStart(level) < ws.getLevelStart(level + 1); level++) {
+            int numDiscovered = 0;
+
+            for (int e = ws.getLevelStart(level); e < ws.getLevelStart(level + 1); e++) {
+                int node = ws.getEntryNode(e);
+                long mask = ws.getEntryMask(e);
+                int base = node * width;
+
+                for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                    if (!s.isEdgeAlive(edgeIds[slot])) continue;
+
+                    int n = targets[slot];
+                    long reach = mask & ~seen[n];
+
+                    if (reach == 0) continue;
+
+                    if (next[n] == 0) {
+                        discovered[numDiscovered++] = n;
+                    }
+
+                    next[n] |= reach;
+
+                    int nBase = n * width;
+                    for (; reach != 0; reach &= reach - 1) {
+                        int i = Long.numberOfTrailingZeros(reach);
+                        sigma[nBase + i] += sigma[base + i];
+                    }
+                }
+            }
 
-            if (max < currBetw) {
-                max = currBetw;
+            for (int k = 0; k < numDiscovered; k++) {
+                int n = discovered[k];
+                seen[n] |= next[n];
+                ws.addEntry(n, next[n]);
+                next[n] = 0;
             }
+
+            ws.endLevel();
         }
 
-        Set<Integer> edgesToKill = new HashSet<>();
-        for (int edge = 0; edge < s.getNumEdge(); edge++) {
-            if (p.getBetw(edge) == max) {
-                edgesToKill.add(edge);
+        // levels are sent back from the last non-empty one, through the masks of the level below.
+        for (int level = ws.getNumLevels() - 2; level > 0; level--) {
+            for (int e = ws.getLevelStart(level - 1); e < ws.getLevelStart(level); e++) {
+                below[ws.getEntryNode(e)] = ws.getEntryMask(e);
+            }
+
+            for (int e = ws.getLevelStart(level); e < ws.getLevelStart(level + 1); e++) {
+                int node = ws.getEntryNode(e);
+                long mask = ws.getEntryMask(e);
+                int base = node * width;
+
+                for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                    int edge = edgeIds[slot];
+
+                    if (!s.isEdgeAlive(edge)) continue;
+
+                    int up = targets[slot];
+                    long preds = mask & below[up];
+
+                    if (preds == 0) continue;
+
+                    int upBase = up * width;
+                    for (; preds != 0; preds &= preds - 1) {
+                        int i = Long.numberOfTrailingZeros(preds);
+                        double inc = sigma[upBase + i] * ((1.0 + delta[base + i]) / sigma[base + i]);
+
+                        betw[edge] += inc;
+                        delta[upBase + i] += inc;
+                    }
+                }
+            }
+
+            for (int e = ws.getLevelStart(level - 1); e < ws.getLevelStart(level); e++) {
+                below[ws.getEntryNode(e)] = 0;
             }
         }
+    }
 
-        p.setEdgesToKill(edgesToKill);
+    // searches from src a level at a time, splitting each level among the threads. Nodes pull their path
+    // counts from the level above and their flow from the level below, so every write has a single owner and
+    // the result does not depend on how levels are split. Path counts are pulled while a level is expanded,
+    // which also lists the successors of each node, so the flow is pulled back along those alone.
+    private void incFlowAndBetwViaLevels(int src, Solution s, BfsWorkspace ws, double[] betw) {
+        int[] dist = ws.getDist();
+        double[] sigma = ws.getSigma();
+        int[] queue = ws.getQueue();
+        FrontierParts parts = ws.getFrontierParts(numThreads);
+
+        ws.reset();
+
+        dist[src] = 0;
+        sigma[src] = 1.0;
+        queue[0] = src;
+        ws.setNumTouched(1);
+
+        // nodes on level d are queue[levelStart[d]] .. queue[levelStart[d + 1] - 1].
+        int[] levelStart = new int[16];
+        levelStart[1] = 1;
+        int numLevels = 1;
+
+        while (levelStart[numLevels - 1] < levelStart[numLevels]) {
+            checkBudget();
+
+            int level = numLevels - 1;
+            int head = levelStart[level];
+            int end = levelStart[numLevels];
+            int numParts = numPartsFor(end - head);
+
+            int[] numFound;
+            try {
+                runParts(numParts, part -> expandLevel(level, head + partStart(end - head, numParts, part),
+                        head + partStart(end - head, numParts, part + 1), part, s, ws));
+                numFound = runParts(numParts, part -> keepClaimed(level, part, ws));
+            } catch (Truncated e) {
+                // claims left in the distances of a level cut short are not cleared by reset.
+                workspaces.remove();
+                throw e;
+            }
+
+            int tail = end;
+            for (int part = 0; part < numParts; part++) {
+                System.arraycopy(parts.getNodes(part), 0, queue, tail, numFound[part]);
+                tail += numFound[part];
+            }
+
+            ws.setNumTouched(tail);
+
+            if (numLevels + 2 > levelStart.length) {
+                levelStart = Arrays.copyOf(levelStart, 2 * levelStart.length);
+            }
+
+            levelStart[++numLevels] = tail;
+        }
+
+        // the deepest non-empty level sends nothing back.
+        for (int level = numLevels - 3; level >= 0; level--) {
+            int head = levelStart[level];
+            int size = levelStart[level + 1] - head;
+            int numParts = numPartsFor(size);
+
+            runParts(numParts, part -> sendLevelBack(head + partStart(size, numParts, part),
+                    head + partStart(size, numParts, part + 1), s, ws, betw));
+        }
     }
 
-    private void calcBetw(Solution s, Problem p) {
-        for (int node = 0; node < s.getNumVert(); node++) {
-            incFlowAndBetwViaBFS(node, s, p);
+    private int numPartsFor(int numNodes) {
+        return Math.max(1, Math.min(numThreads, numNodes / MIN_NODES_PER_PART));
+    }
+
+    private static int partStart(int numNodes, int numParts, int part) {
+        return (int) ((long) numNodes * part / numParts);
+    }
+
+    // runs part(0) .. part(numParts - 1) on the pool and returns what each of them returned.
+    private int[] runParts(int numParts, IntUnaryOperator part) {
+        List<Callable<Integer>> tasks = new ArrayList<>(numParts);
+        for (int i = 0; i < numParts; i++) {
+            int index = i;
+            tasks.add(() -> part.applyAsInt(index));
         }
+
+        List<Integer> results = runAll(tasks);
+        int[] values = new int[numParts];
+        for (int i = 0; i < numParts; i++) {
+            values[i] = results.get(i);
+        }
+
+        return values;
     }
 
-    private void incFlowAndBetwViaBFS(int src, Solution s, Problem p) {
-        p.resetFlowsData();
+    // sums the path counts of queue[from .. to - 1], which lie on the given level, from their neighbours on
+    // the level above, and claims their unvisited neighbours for the part by writing -2 - part into their
+    // distance. Several parts may claim the same node, the last write wins. Every unvisited neighbour lies on
+    // the next level, so they are listed as the node's successors in predNode and predEdge.
+    private static int expandLevel(int level, int from, int to, int part, Solution s, BfsWorkspace ws) {
+        int[] offsets = s.getGraph().getOffsets();
+        int[] targets = s.getGraph().getTargets();
+        int[] edgeIds = s.getGraph().getEdgeIds();
+        int[] dist = ws.getDist();
+        double[] sigma = ws.getSigma();
+        int[] queue = ws.getQueue();
+        int[] succCount = ws.getPredCount();
+        int[] succNode = ws.getPredNode();
+        int[] succEdge = ws.getPredEdge();
+        FrontierParts parts = ws.getFrontierParts(part + 1);
+        int claim = -2 - part;
+
+        parts.clear(part);
 
-        FlowData flowSrc = new FlowData(src, 1);
-        flowSrc.incPathCount(1);
+        for (int i = from; i < to; i++) {
+            int node = queue[i];
+            double paths = 0.0;
+            int k = offsets[node];
 
-        Map<Integer, FlowData> flowsData = p.getFlowsData();
-        flowsData.put(src, flowSrc);
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int n = targets[slot];
+                int d = dist[n];
 
-        Queue<FlowData> pathQueue = new LinkedList<>();
-        pathQueue.add(flowSrc);
+                // the source has no level above.
+                if (d >= 0 && (d != level - 1 || level == 0)) continue;
 
-        Set<Integer> visited = new HashSet<>();
+                int edge = edgeIds[slot];
+                if (!s.isEdgeAlive(edge)) continue;
 
-        Stack<FlowData> flowStack = new Stack<>();
+                if (d >= 0) {
+                    paths += sigma[n];
+                    continue;
+                }
 
-        while (!pathQueue.isEmpty()) {
-            FlowData curr = pathQueue.poll();
+                succNode[k] = n;
+                succEdge[k++] = edge;
 
-            if (!visited.contains(curr.getNode())) {
-                visited.add(curr.getNode());
-            } else {
-                continue;
+                if (d != claim) {
+                    dist[n] = claim;
+                    parts.add(part, n);
+                }
             }
 
-            flowStack.add(curr);
+            succCount[node] = k - offsets[node];
 
-            Set<Integer> nodeNeighbors = s.getNeighborsOf(curr.getNode());
+            if (level > 0) {
+                sigma[node] = paths;
+            }
+        }
+
+        return 0;
+    }
+
+    // keeps the nodes the part won on the next level. Returns the number of nodes kept.
+    private static int keepClaimed(int level, int part, BfsWorkspace ws) {
+        int[] dist = ws.getDist();
+        FrontierParts parts = ws.getFrontierParts(part + 1);
+        int[] found = parts.getNodes(part);
+        int claim = -2 - part;
+        int numKept = 0;
+
+        for (int i = 0; i < parts.getSize(part); i++) {
+            int node = found[i];
+
+            // lost to another part, or already kept.
+            if (dist[node] != claim) continue;
+
+            dist[node] = level + 1;
+            found[numKept++] = node;
+        }
+
+        parts.setSize(part, numKept);
+        return numKept;
+    }
+
+    // pulls the flow of the successors of queue[from .. to - 1] back into them.
+    private static int sendLevelBack(int from, int to, Solution s, BfsWorkspace ws, double[] betw) {
+        int[] offsets = s.getGraph().getOffsets();
+        double[] sigma = ws.getSigma();
+        double[] delta = ws.getDelta();
+        int[] queue = ws.getQueue();
+        int[] succCount = ws.getPredCount();
+        int[] succNode = ws.getPredNode();
+        int[] succEdge = ws.getPredEdge();
 
-            curr.populateDownstream(flowsData, nodeNeighbors, s.getSeveredPairs());
-            curr.updateDownstream(flowsData);
+        for (int i = from; i < to; i++) {
+            int node = queue[i];
+            double flow = 0.0;
 
-            for (int d : curr.getDownstream()) {
-                pathQueue.add(p.getFlowData(d));
+            for (int k = offsets[node]; k < offsets[node] + succCount[node]; k++) {
+                int down = succNode[k];
+                double inc = sigma[node] * ((1.0 + delta[down]) / sigma[down]);
+
+                betw[succEdge[k]] += inc;
+                flow += inc;
             }
+
+            delta[node] = flow;
         }
 
-        while (!flowStack.isEmpty()) {
-            FlowData flowData = flowStack.pop();
+        return 0;
+    }
+
+    // every reached node sends one unit of flow to the source, split among its predecessors by path count.
+    private void accumulateFlow(BfsWorkspace ws, int[] offsets, double[] betw) {
+        int[] queue = ws.getQueue();
+        double[] sigma = ws.getSigma();
+        double[] delta = ws.getDelta();
+        int[] predCount = ws.getPredCount();
+        int[] predNode = ws.getPredNode();
+        int[] predEdge = ws.getPredEdge();
 
-            Map<VertexPair, Double> betwInc = flowData.incUpstreamFlow(flowsData);
+        for (int i = ws.getNumTouched() - 1; i > 0; i--) {
+            int node = queue[i];
+            double proportion = (1.0 + delta[node]) / sigma[node];
 
-            for (VertexPair vp : betwInc.keySet()) {
-                int edge = s.getEdge(vp);
-                p.incBetw(edge, betwInc.get(vp));
+            for (int k = offsets[node]; k < offsets[node] + predCount[node]; k++) {
+                int up = predNode[k];
+                double inc = sigma[up] * proportion;
+
+                betw[predEdge[k]] += inc;
+                delta[up] += inc;
             }
         }
     }
@@ -129,66 +1860,315 @@ public class Solver {
 
     public void killEdges(Solution s, Problem p) {
         Set<Integer> edgesToKill = p.getEdgesToKill();
+        SourceDags dags = getSourceDags(s);
+        Set<Integer> toInvalidate = dags != null ? takeOutAffected(s, dags, edgesToKill) : edgesToKill;
 
         for (int edge : edgesToKill) {
-            EdgeData ed = s.getEdgeData(edge);
-            VertexPair vp = ed.getEndpoints();
+            s.killEdge(edge, p.getIter());
+        }
+
+        int[] queue = new int[s.getNumVert()];
+        for (int edge : toInvalidate) {
+            invalidateComponent(s.getGraph().getEdgeSource(edge), s, queue);
+            invalidateComponent(s.getGraph().getEdgeTarget(edge), s, queue);
+        }
+
+        // what is left on a killed edge after taking out contributions is rounding error.
+        if (dags != null) {
+            for (int edge : edgesToKill) {
+                s.getBetwCache().resetBetw(edge);
+            }
+        }
+    }
+
+    private void invalidateComponent(int node, Solution s, int[] queue) {
+        BetwCache cache = s.getBetwCache();
+
+        if (cache.isStale(node)) {
+            return;
+        }
+
+        int[] offsets = s.getGraph().getOffsets();
+        int[] targets = s.getGraph().getTargets();
+        int[] edgeIds = s.getGraph().getEdgeIds();
+
+        cache.markStale(node);
+        queue[0] = node;
+
+        int head = 0;
+        int tail = 1;
+
+        while (head < tail) {
+            int currNode = queue[head++];
 
-            s.getEdgeData(edge).kill(p.getIter());
-            s.addSeveredPairs(vp);
+            for (int slot = offsets[currNode]; slot < offsets[currNode + 1]; slot++) {
+                int edge = edgeIds[slot];
+                cache.resetBetw(edge);
+
+                if (s.isEdgeAlive(edge) && !cache.isStale(targets[slot])) {
+                    cache.markStale(targets[slot]);
+                    queue[tail++] = targets[slot];
+                }
+            }
         }
     }
 
     public void calcMod(Solution s, Problem p) {
         findCommSet(s, p);
+        applyMod(s, p);
+    }
+
+    // modularity of the communities last found by findCommSet.
+    private void applyMod(Solution s, Problem p) {
+        ComponentData comps = s.getComponents();
+        double m = s.getGraph().getTotalWeight();
+
+        if (s.getNumEdge() == 0) {
+            return;
+        }
+
+        // sum over ordered pairs of distinct nodes in the same community of (A - k1 * k2 / 2m) / 2m,
+        // written with the community totals, which are only updated when a community splits. With weights,
+        // A holds the weight of the edge, k the strength of a node and m the total weight.
+        double mod = comps.getInternalEdges() / m
+                - (comps.getSumDegSq() - comps.getSelfDegSq()) / (4.0 * m * m);
+
+        p.incMod(mod);
+    }
+
+    void findCommSet(Solution s, Problem p) {
+        ComponentData comps = s.getComponents();
+
+        if (!comps.isLabelled()) {
+            labelComponents(s, comps);
+        } else {
+            splitComponents(s, comps);
+            comps.clearPending();
+        }
+
+        p.setCommLabels(comps);
+    }
 
-        for (Set<Integer> comm : p.getCommunitiesSet().values()) {
-            for (int node : comm) {
-                for (int friend : comm) {
-                    calcModIter(node, friend, s, p);
+    private void labelComponents(Solution s, ComponentData comps) {
+        int[] offsets = s.getGraph().getOffsets();
+        int[] targets = s.getGraph().getTargets();
+        int[] edgeIds = s.getGraph().getEdgeIds();
+        int[] queue = comps.getQueue1();
+
+        for (int node = 0; node < s.getNumVert(); node++) {
+            if (comps.getComm(node) >= 0) {
+                continue;
+            }
+
+            int currComm = comps.initNewComm();
+            comps.putInComm(currComm, node);
+            queue[0] = node;
+
+            int head = 0;
+            int tail = 1;
+
+            while (head < tail) {
+                int currNode = queue[head++];
+
+                for (int slot = offsets[currNode]; slot < offsets[currNode + 1]; slot++) {
+                    int n = targets[slot];
+
+                    if (comps.getComm(n) < 0 && s.isEdgeAlive(edgeIds[slot])) {
+                        comps.putInComm(currComm, n);
+                        queue[tail++] = n;
+                    }
                 }
             }
         }
+
+        countCommTotals(s, comps);
+        comps.setLabelled();
     }
 
-    private void findCommSet(Solution s, Problem p) {
+    private void countCommTotals(Solution s, ComponentData comps) {
+        CsrGraph g = s.getGraph();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        int[] edgeIds = g.getEdgeIds();
+
+        double[] edges = new double[comps.getNumComm()];
+        double[] deg = new double[comps.getNumComm()];
+        double selfDegSq = 0.0;
+
         for (int node = 0; node < s.getNumVert(); node++) {
-            if (!p.isInComm(node)) {
-                HashSet<Integer> visited = new HashSet<>();
-                int currComm = p.initNewComm();
+            int comm = comps.getComm(node);
+            double k = g.getStrength(node);
+
+            deg[comm] += k;
+            selfDegSq += k * k;
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                if (targets[slot] > node && comps.getComm(targets[slot]) == comm) {
+                    edges[comm] += g.getWeight(edgeIds[slot]);
+                }
+            }
+        }
+
+        for (int comm = 0; comm < comps.getNumComm(); comm++) {
+            comps.setCommTotals(comm, edges[comm], deg[comm]);
+        }
+
+        comps.setSelfDegSq(selfDegSq);
+    }
+
+    private void splitComponents(Solution s, ComponentData comps) {
+        int numEnds = 2 * comps.getNumPending();
+        int[] ends = new int[numEnds];
+
+        for (int i = 0; i < comps.getNumPending(); i++) {
+            int edge = comps.getPendingKill(i);
+            ends[2 * i] = s.getGraph().getEdgeSource(edge);
+            ends[2 * i + 1] = s.getGraph().getEdgeTarget(edge);
+        }
+
+        // every piece of a split component holds an end of a killed edge, so it is enough to check that
+        // ends sharing a label are still connected. Ends are bucketed by their label, and each end is only
+        // checked against one representative of every piece found so far in its bucket.
+        long[] byComm = new long[numEnds];
+        for (int i = 0; i < numEnds; i++) {
+            byComm[i] = (long) comps.getComm(ends[i]) << 32 | i;
+        }
+        Arrays.sort(byComm);
 
-                Queue<Integer> bfsQueue = new LinkedList<>();
-                bfsQueue.add(node);
+        int[] reps = new int[numEnds];
+        int bucketStart = 0;
 
-                while (!bfsQueue.isEmpty()) {
-                    int currNode = bfsQueue.poll();
-                    visited.add(currNode);
+        while (bucketStart < numEnds) {
+            int bucketComm = (int) (byComm[bucketStart] >>> 32);
+            int numReps = 0;
+            int i = bucketStart;
 
-                    p.putInComm(currComm, currNode);
+            for (; i < numEnds && (int) (byComm[i] >>> 32) == bucketComm; i++) {
+                int end = ends[(int) byComm[i]];
+                boolean connected = false;
 
-                    Set<Integer> neighbors = s.getNeighborsOf(currNode);
-                    for (int n : neighbors) {
-                        if (!visited.contains(n)
-                                && s.getEdgeData(currNode, n).isAlive()) {
-                            bfsQueue.add(n);
-                        }
+                // a failed check relabels one side, so ends in different pieces never share a label again
+                for (int r = 0; r < numReps && !connected; r++) {
+                    if (comps.getComm(reps[r]) == comps.getComm(end)) {
+                        connected = splitComponent(end, reps[r], s, comps);
                     }
                 }
+
+                if (!connected) {
+                    reps[numReps++] = end;
+                }
             }
+
+            bucketStart = i;
         }
     }
 
-    private void calcModIter(int node1, int node2, Solution s, Problem p) {
+    // returns whether node1 and node2 are still connected, otherwise the smaller side gets a new label.
+    private boolean splitComponent(int node1, int node2, Solution s, ComponentData comps) {
         if (node1 == node2) {
-            return;
+            return true;
+        }
+
+        int[] mark = comps.getMark();
+        int stamp2 = comps.nextStamp();
+        int stamp1 = stamp2 - 1;
+
+        int[] queue1 = comps.getQueue1();
+        int[] queue2 = comps.getQueue2();
+        queue1[0] = node1;
+        queue2[0] = node2;
+        mark[node1] = stamp1;
+        mark[node2] = stamp2;
+
+        int head1 = 0;
+        int tail1 = 1;
+        int head2 = 0;
+        int tail2 = 1;
+
+        // grow both searches one node at a time. If they meet the nodes are still connected, otherwise
+        // the search that runs out first has found the smaller side.
+        while (true) {
+            if (head1 == tail1) {
+                relabel(queue1, tail1, s, comps);
+                return false;
+            }
+
+            if (head2 == tail2) {
+                relabel(queue2, tail2, s, comps);
+                return false;
+            }
+
+            tail1 = expandSearch(queue1[head1++], stamp1, stamp2, queue1, tail1, s, mark);
+            if (tail1 < 0) {
+                return true;
+            }
+
+            tail2 = expandSearch(queue2[head2++], stamp2, stamp1, queue2, tail2, s, mark);
+            if (tail2 < 0) {
+                return true;
+            }
+        }
+    }
+
+    private int expandSearch(int node, int own, int other, int[] queue, int tail, Solution s, int[] mark) {
+        int[] offsets = s.getGraph().getOffsets();
+        int[] targets = s.getGraph().getTargets();
+        int[] edgeIds = s.getGraph().getEdgeIds();
+
+        for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+            if (!s.isEdgeAlive(edgeIds[slot])) continue;
+
+            int n = targets[slot];
+
+            if (mark[n] == other) {
+                return -1;
+            }
+
+            if (mark[n] != own) {
+                mark[n] = own;
+                queue[tail++] = n;
+            }
+        }
+
+        return tail;
+    }
+
+    private void relabel(int[] nodes, int numNodes, Solution s, ComponentData comps) {
+        CsrGraph g = s.getGraph();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        int[] edgeIds = g.getEdgeIds();
+
+        int oldComm = comps.getComm(nodes[0]);
+        int newComm = comps.initNewComm();
+
+        for (int i = 0; i < numNodes; i++) {
+            comps.putInComm(newComm, nodes[i]);
         }
 
-        int m = s.getNumEdge();
+        // original edges inside the new side, and those cut between it and what is left of the old one.
+        double inside = 0.0;
+        double cut = 0.0;
+        double deg = 0.0;
+
+        for (int i = 0; i < numNodes; i++) {
+            int node = nodes[i];
+            deg += g.getStrength(node);
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int comm = comps.getComm(targets[slot]);
+
+                if (comm == newComm) {
+                    inside += g.getWeight(edgeIds[slot]);
+                } else if (comm == oldComm) {
+                    cut += g.getWeight(edgeIds[slot]);
+                }
+            }
+        }
 
-        double val = s.areNeighbors(node1, node2) ? 1.0 : 0.0;
-        val -= (s.getNumNeighborsOf(node1) * s.getNumNeighborsOf(node2)) / (2.0 * m);
-        val /= (2.0 * m);
+        inside /= 2;
 
-        p.incMod(val);
+        comps.setCommTotals(newComm, inside, deg);
+        comps.setCommTotals(oldComm, comps.getCommEdges(oldComm) - inside - cut, comps.getCommDeg(oldComm) - deg);
     }
 }
@@ -0,0 +1,12 @@
+package girvannewman;
+
+// callbacks from Solver.solve and Solver.resume, run on the solving thread.
+public interface SolverListener {
+    default void onStart(Solution s) {
+    }
+
+    void onIteration(IterationEvent event);
+
+    default void onFinish(Solution s) {
+    }
+}
@@ -0,0 +1,79 @@
+package girvannewman;
+
+import java.util.Arrays;
+
+// progress of a run as seen by a StopPolicy, updated by the solver after every iteration.
+public class SolverState {
+    private final Solution solution;
+
+    private int iter;
+    private double mod;
+    private double optMod = Double.NEGATIVE_INFINITY;
+    private int optIter;
+    private int numNonImproving;
+
+    // optModAt[i] is the best modularity over iterations 1 .. i.
+    private double[] optModAt = new double[16];
+
+    SolverState(Solution solution) {
+        this.solution = solution;
+        optModAt[0] = Double.NEGATIVE_INFINITY;
+    }
+
+    void advance(double currMod) {
+        iter++;
+        mod = currMod;
+
+        if (optMod <= currMod) {
+            optMod = currMod;
+            optIter = iter;
+        } else {
+            numNonImproving++;
+        }
+
+        if (iter == optModAt.length) {
+            optModAt = Arrays.copyOf(optModAt, 2 * iter);
+        }
+
+        optModAt[iter] = optMod;
+    }
+
+    public Solution getSolution() {
+        return solution;
+    }
+
+    // number of completed iterations.
+    public int getIter() {
+        return iter;
+    }
+
+    public double getMod() {
+        return mod;
+    }
+
+    public double getOptMod() {
+        return optMod;
+    }
+
+    public int getOptIter() {
+        return optIter;
+    }
+
+    public double getOptModAt(int iter) {
+        if (iter < 0 || iter > this.iter) {
+            String msg = String.format("Iteration must be within [0, %d], received %d instead.", this.iter, iter);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return optModAt[iter];
+    }
+
+    // iterations whose modularity was below the best seen before them.
+    public int getNumNonImproving() {
+        return numNonImproving;
+    }
+
+    public int getNumComm() {
+        return solution.getComponents().getNumComm();
+    }
+}
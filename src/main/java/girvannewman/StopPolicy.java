@@ -0,0 +1,115 @@
+package girvannewman;
+
+import girvannewman.data.ComponentData;
+import graph.CsrGraph;
+
+// decides whether a run stops, consulted before every iteration. The solver also stops once no edges are left.
+public interface StopPolicy {
+    boolean shouldStop(SolverState state);
+
+    default StopPolicy or(StopPolicy other) {
+        return state -> shouldStop(state) || other.shouldStop(state);
+    }
+
+    default StopPolicy and(StopPolicy other) {
+        return state -> shouldStop(state) && other.shouldStop(state);
+    }
+
+    // the original rule, stop at a worse iteration once threshold iterations have been worse than the best.
+    static StopPolicy nonImproving(int threshold) {
+        if (threshold < 0) {
+            String msg = String.format("Threshold must be non-negative, received %d instead.", threshold);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return state -> state.getIter() > 0 && state.getMod() < state.getOptMod()
+                && state.getNumNonImproving() >= threshold;
+    }
+
+    static StopPolicy maxIterations(int numIter) {
+        if (numIter < 0) {
+            String msg = String.format("Number of iterations must be non-negative, received %d instead.", numIter);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return state -> state.getIter() >= numIter;
+    }
+
+    static StopPolicy targetCommunities(int numComm) {
+        if (numComm <= 0) {
+            String msg = String.format("Number of communities must be positive, received %d instead.", numComm);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return state -> state.getNumComm() >= numComm;
+    }
+
+    // stop once the best modularity of the last window iterations is no more than tolerance above the
+    // best before them.
+    static StopPolicy modularityPlateau(int window, double tolerance) {
+        if (window <= 0) {
+            String msg = String.format("Window must be positive, received %d instead.", window);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (tolerance < 0.0) {
+            String msg = String.format("Tolerance must be non-negative, received %f instead.", tolerance);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return state -> state.getIter() > window
+                && state.getOptMod() <= state.getOptModAt(state.getIter() - window) + tolerance;
+    }
+
+    // stop once some community with edges has at most size nodes. Single nodes have no edges left and are
+    // ignored, otherwise isolated vertices would stop a run before it starts, so size must be at least 2.
+    static StopPolicy minComponentSize(int size) {
+        if (size < 2) {
+            String msg = String.format("Component size must be at least 2, received %d instead.", size);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return state -> {
+            ComponentData comps = state.getSolution().getComponents();
+
+            for (int comm = 0; comm < comps.getNumComm(); comm++) {
+                if (comps.getCommSize(comm) > 1 && comps.getCommSize(comm) <= size) {
+                    return true;
+                }
+            }
+
+            return false;
+        };
+    }
+
+    // stop once every community is a tree or a clique over its live edges, where further splits tell little.
+    static StopPolicy treesOrCliques() {
+        return state -> {
+            Solution s = state.getSolution();
+            ComponentData comps = s.getComponents();
+
+            if (comps.getNumComm() == 0) {
+                return false;
+            }
+
+            CsrGraph graph = s.getGraph();
+            long[] liveEdges = new long[comps.getNumComm()];
+
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                if (s.isEdgeAlive(edge)) {
+                    liveEdges[comps.getComm(graph.getEdgeTarget(edge))]++;
+                }
+            }
+
+            for (int comm = 0; comm < comps.getNumComm(); comm++) {
+                long size = comps.getCommSize(comm);
+
+                if (size > 0 && liveEdges[comm] != size - 1 && liveEdges[comm] != size * (size - 1) / 2) {
+                    return false;
+                }
+            }
+
+            return true;
+        };
+    }
+}
@@ -0,0 +1,196 @@
+package girvannewman;
+
+import girvannewman.data.ComponentData;
+import graph.CsrGraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// a connected component of a run, copied into a graph of its own and split by a serial solver of its own.
+// Its steps are worked out ahead of the run and handed over in order.
+class Subproblem {
+    private final Solution local;
+    private final Solver solver;
+    // global id of each local edge.
+    private final int[] globalEdges;
+
+    private final ArrayDeque<Step> steps = new ArrayDeque<>();
+    private int numIter;
+    // set while the subproblem waits for the next refill.
+    private boolean queued;
+
+    private Subproblem(CsrGraph graph, int[] globalEdges, Solver parent) {
+        local = Solution.fromCsr(graph);
+        solver = new Solver(parent);
+        this.globalEdges = globalEdges;
+    }
+
+    // one subproblem per component with a live edge, the communities of s must be labelled. Local node
+    // ids follow the global order, so local edge ids do as well.
+    static List<Subproblem> split(Solution s, Solver parent) {
+        CsrGraph g = s.getGraph();
+        ComponentData comps = s.getComponents();
+        int numVert = s.getNumVert();
+        int numComm = comps.getNumComm();
+
+        int[] start = new int[numComm + 1];
+        for (int node = 0; node < numVert; node++) {
+            start[comps.getComm(node) + 1]++;
+        }
+
+        for (int comm = 0; comm < numComm; comm++) {
+            start[comm + 1] += start[comm];
+        }
+
+        int[] nodes = new int[numVert];
+        int[] localOf = new int[numVert];
+        int[] next = new int[numComm];
+        System.arraycopy(start, 0, next, 0, numComm);
+
+        for (int node = 0; node < numVert; node++) {
+            int comm = comps.getComm(node);
+            localOf[node] = next[comm] - start[comm];
+            nodes[next[comm]++] = node;
+        }
+
+        int[] numAlive = new int[numComm];
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            if (s.isEdgeAlive(edge)) {
+                numAlive[comps.getComm(g.getEdgeSource(edge))]++;
+            }
+        }
+
+        List<Subproblem> subproblems = new ArrayList<>();
+        for (int comm = 0; comm < numComm; comm++) {
+            if (numAlive[comm] > 0) {
+                subproblems.add(copy(s, nodes, start[comm], start[comm + 1], localOf, numAlive[comm], parent));
+            }
+        }
+
+        return subproblems;
+    }
+
+    private static Subproblem copy(Solution s, int[] nodes, int from, int to, int[] localOf, int numEdge,
+                                   Solver parent) {
+        CsrGraph g = s.getGraph();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        int[] edgeIds = g.getEdgeIds();
+
+        int[] localOffsets = new int[to - from + 1];
+        int[] localTargets = new int[2 * numEdge];
+        int[] globalEdges = new int[numEdge];
+        double[] weights = g.isWeighted() ? new double[numEdge] : null;
+
+        int numSlot = 0;
+        int numLocalEdge = 0;
+
+        for (int i = from; i < to; i++) {
+            int node = nodes[i];
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int edge = edgeIds[slot];
+
+                if (!s.isEdgeAlive(edge)) {
+                    continue;
+                }
+
+                int neighbor = localOf[targets[slot]];
+                localTargets[numSlot++] = neighbor;
+
+                // edges are numbered from their smaller endpoint, in the order CsrGraph numbers them.
+                if (neighbor > i - from) {
+                    globalEdges[numLocalEdge] = edge;
+
+                    if (weights != null) {
+                        weights[numLocalEdge] = g.getWeight(edge);
+                    }
+
+                    numLocalEdge++;
+                }
+            }
+
+            localOffsets[i - from + 1] = numSlot;
+        }
+
+        return new Subproblem(new CsrGraph(localOffsets, localTargets, weights), globalEdges, parent);
+    }
+
+    // works out steps until numSteps are waiting or the component has no live edge left. Only touches
+    // this subproblem, so subproblems can be filled concurrently.
+    Subproblem fill(int numSteps) {
+        while (steps.size() < numSteps && local.getNumAliveEdges() > 0) {
+            Problem p = new Problem(local.getNumEdge(), numIter + 1);
+            solver.getEdgesToKill(local, p);
+            solver.killEdges(local, p);
+            numIter++;
+
+            int[] edges = new int[p.getEdgesToKill().size()];
+            double betw = 0.0;
+            int i = 0;
+
+            for (int edge : p.getEdgesToKill()) {
+                betw = p.getBetw(edge);
+                edges[i++] = globalEdges[edge];
+            }
+
+            steps.add(new Step(betw, edges, solver.getLastNumBfs()));
+        }
+
+        return this;
+    }
+
+    boolean hasStep() {
+        return !steps.isEmpty();
+    }
+
+    int getNumSteps() {
+        return steps.size();
+    }
+
+    Step peekStep() {
+        return steps.peek();
+    }
+
+    Step pollStep() {
+        return steps.poll();
+    }
+
+    boolean isFinished() {
+        return steps.isEmpty() && local.getNumAliveEdges() == 0;
+    }
+
+    boolean isQueued() {
+        return queued;
+    }
+
+    void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    // the edges removed on one iteration of the subproblem, by global id, and their betweenness.
+    static class Step {
+        private final double betw;
+        private final int[] edges;
+        private final int numBfs;
+
+        Step(double betw, int[] edges, int numBfs) {
+            this.betw = betw;
+            this.edges = edges;
+            this.numBfs = numBfs;
+        }
+
+        double getBetw() {
+            return betw;
+        }
+
+        int[] getEdges() {
+            return edges;
+        }
+
+        int getNumBfs() {
+            return numBfs;
+        }
+    }
+}
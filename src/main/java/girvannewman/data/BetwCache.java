@@ -0,0 +1,73 @@
+package girvannewman.data;
+
+import java.util.Arrays;
+
+public class BetwCache {
+    private final double[] betw;
+
+    // nodes whose component lost an edge since its betweenness was last calculated.
+    private final boolean[] stale;
+    private final int[] staleNodes;
+    private int numStale;
+
+    public BetwCache(int numVert, int numEdge) {
+        if (numVert < 0 || numEdge < 0) {
+            String msg = String.format("Sizes must be non-negative, received %d, %d instead.",
+                    numVert, numEdge);
+            throw new IllegalArgumentException(msg);
+        }
+
+        betw = new double[numEdge];
+        stale = new boolean[numVert];
+        staleNodes = new int[numVert];
+
+        for (int node = 0; node < numVert; node++) {
+            markStale(node);
+        }
+    }
+
+    public double getBetw(int edge) {
+        return betw[edge];
+    }
+
+    public void incBetw(int edge, double inc) {
+        betw[edge] += inc;
+    }
+
+    public void resetBetw(int edge) {
+        betw[edge] = 0.0;
+    }
+
+    public boolean isStale(int node) {
+        return stale[node];
+    }
+
+    public void markStale(int node) {
+        if (stale[node]) {
+            return;
+        }
+
+        stale[node] = true;
+        staleNodes[numStale++] = node;
+    }
+
+    public int getNumStale() {
+        return numStale;
+    }
+
+    public int getStaleNode(int index) {
+        return staleNodes[index];
+    }
+
+    public int[] exportStaleNodes() {
+        return Arrays.copyOf(staleNodes, numStale);
+    }
+
+    public void clearStale() {
+        for (int i = 0; i < numStale; i++) {
+            stale[staleNodes[i]] = false;
+        }
+
+        numStale = 0;
+    }
+}
@@ -0,0 +1,162 @@
+package girvannewman.data;
+
+import java.util.Arrays;
+
+public class BfsWorkspace {
+    private final int[] dist;
+    private final double[] sigma;
+    private final double[] delta;
+    private final int[] queue;
+
+    // predecessors of v and the edges leading to them are stored in predNode and predEdge at
+    // offsets[v] .. offsets[v] + predCount[v] - 1, using the CSR offsets of the graph.
+    private final int[] predCount;
+    private final int[] predNode;
+    private final int[] predEdge;
+
+    private int numTouched;
+
+    // path lengths and the queue of unsettled nodes for weighted graphs, allocated on first use.
+    private double[] length;
+    private NodeQueue nodeQueue;
+    // nodes not reached yet, listed for bottom-up steps of a search and allocated on first use.
+    // numUnvisited is -1 until they are listed.
+    private int[] unvisited;
+    private int numUnvisited = -1;
+    // lists of the parts of a level searched in parallel, allocated on first use.
+    private FrontierParts frontierParts;
+
+    public BfsWorkspace(int numVert, int numSlot) {
+        if (numVert < 0 || numSlot < 0) {
+            String msg = String.format("Sizes must be non-negative, received %d, %d instead.",
+                    numVert, numSlot);
+            throw new IllegalArgumentException(msg);
+        }
+
+        dist = new int[numVert];
+        Arrays.fill(dist, -1);
+
+        sigma = new double[numVert];
+        delta = new double[numVert];
+        queue = new int[numVert];
+        predCount = new int[numVert];
+        predNode = new int[numSlot];
+        predEdge = new int[numSlot];
+    }
+
+    public boolean fits(int numVert, int numSlot) {
+        return dist.length == numVert && predNode.length == numSlot;
+    }
+
+    public void reset() {
+        for (int i = 0; i < numTouched; i++) {
+            int node = queue[i];
+            dist[node] = -1;
+            sigma[node] = 0.0;
+            delta[node] = 0.0;
+            predCount[node] = 0;
+
+            if (length != null) {
+                length[node] = Double.POSITIVE_INFINITY;
+            }
+        }
+
+        numTouched = 0;
+        numUnvisited = -1;
+    }
+
+    public void setNumTouched(int numTouched) {
+        this.numTouched = numTouched;
+    }
+
+    public int getNumTouched() {
+        return numTouched;
+    }
+
+    public int[] getDist() {
+        return dist;
+    }
+
+    public double[] getSigma() {
+        return sigma;
+    }
+
+    public double[] getDelta() {
+        return delta;
+    }
+
+    public double[] getLength() {
+        if (length == null) {
+            length = new double[dist.length];
+            Arrays.fill(length, Double.POSITIVE_INFINITY);
+        }
+
+        return length;
+    }
+
+    // lists the nodes whose distance is still unset.
+    public void listUnvisited() {
+        if (unvisited == null) {
+            unvisited = new int[dist.length];
+        }
+
+        numUnvisited = 0;
+        for (int node = 0; node < dist.length; node++) {
+            if (dist[node] < 0) {
+                unvisited[numUnvisited++] = node;
+            }
+        }
+    }
+
+    public boolean isUnvisitedListed() {
+        return numUnvisited >= 0;
+    }
+
+    public int[] getUnvisited() {
+        return unvisited;
+    }
+
+    public int getNumUnvisited() {
+        return numUnvisited;
+    }
+
+    public void setNumUnvisited(int numUnvisited) {
+        this.numUnvisited = numUnvisited;
+    }
+
+    public FrontierParts getFrontierParts(int numParts) {
+        if (frontierParts == null || frontierParts.getNumParts() < numParts) {
+            frontierParts = new FrontierParts(numParts);
+        }
+
+        return frontierParts;
+    }
+
+    // a bucket queue for integer weights up to maxStep, or a heap when maxStep is negative.
+    public NodeQueue getNodeQueue(int maxStep) {
+        if (maxStep < 0 && !(nodeQueue instanceof IndexedHeap)) {
+            nodeQueue = new IndexedHeap(dist.length);
+        } else if (maxStep >= 0 && !(nodeQueue instanceof BucketQueue
+                && ((BucketQueue) nodeQueue).getMaxStep() == maxStep)) {
+            nodeQueue = new BucketQueue(dist.length, maxStep);
+        }
+
+        return nodeQueue;
+    }
+
+    public int[] getQueue() {
+        return queue;
+    }
+
+    public int[] getPredCount() {
+        return predCount;
+    }
+
+    public int[] getPredNode() {
+        return predNode;
+    }
+
+    public int[] getPredEdge() {
+        return predEdge;
+    }
+}
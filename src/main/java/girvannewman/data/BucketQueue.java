@@ -0,0 +1,129 @@
+package girvannewman.data;
+
+import java.util.Arrays;
+
+// Dial's bucket queue for integer keys. Every key in the queue lies within maxStep of the last key
+// polled, so maxStep + 1 buckets used in a circle are enough, each holding a doubly linked list of nodes.
+public class BucketQueue implements NodeQueue {
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+    // bucket of each node, -1 when absent.
+    private final int[] bucket;
+
+    private long cursor;
+    private int size;
+
+    public BucketQueue(int numNode, int maxStep) {
+        if (numNode < 0 || maxStep < 0) {
+            String msg = String.format("Sizes must be non-negative, received %d, %d instead.", numNode, maxStep);
+            throw new IllegalArgumentException(msg);
+        }
+
+        head = new int[maxStep + 1];
+        next = new int[numNode];
+        prev = new int[numNode];
+        bucket = new int[numNode];
+
+        Arrays.fill(head, -1);
+        Arrays.fill(bucket, -1);
+    }
+
+    public int getMaxStep() {
+        return head.length - 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return bucket[node] >= 0;
+    }
+
+    // keys are whole numbers held in a double, like the path lengths of a graph with integer weights.
+    @Override
+    public void add(int node, double key) {
+        if (bucket[node] >= 0) {
+            String msg = String.format("Node %d is already in the queue.", node);
+            throw new IllegalArgumentException(msg);
+        }
+
+        long k = (long) key;
+        // an empty queue takes any key, but the cursor only moves if it has to, since keys added next may
+        // still lie between it and k.
+        if (size == 0 && (k < cursor || k > cursor + head.length - 1)) {
+            cursor = k;
+        }
+
+        if (k < cursor || k > cursor + head.length - 1) {
+            String msg = String.format("Key %d of node %d must be within [%d, %d].", k, node, cursor,
+                    cursor + head.length - 1);
+            throw new IllegalArgumentException(msg);
+        }
+
+        link(node, (int) (k % head.length));
+        size++;
+    }
+
+    @Override
+    public void decrease(int node, double key) {
+        if (bucket[node] < 0) {
+            String msg = String.format("Node %d is not in the queue.", node);
+            throw new IllegalArgumentException(msg);
+        }
+
+        unlink(node);
+        size--;
+        add(node, key);
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty.");
+        }
+
+        int b = (int) (cursor % head.length);
+        while (head[b] < 0) {
+            cursor++;
+            b = b + 1 == head.length ? 0 : b + 1;
+        }
+
+        int node = head[b];
+        unlink(node);
+        size--;
+
+        return node;
+    }
+
+    private void link(int node, int b) {
+        bucket[node] = b;
+        prev[node] = -1;
+        next[node] = head[b];
+
+        if (head[b] >= 0) {
+            prev[head[b]] = node;
+        }
+
+        head[b] = node;
+    }
+
+    private void unlink(int node) {
+        int b = bucket[node];
+
+        if (prev[node] >= 0) {
+            next[prev[node]] = next[node];
+        } else {
+            head[b] = next[node];
+        }
+
+        if (next[node] >= 0) {
+            prev[next[node]] = prev[node];
+        }
+
+        bucket[node] = -1;
+    }
+}
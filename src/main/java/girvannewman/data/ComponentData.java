@@ -0,0 +1,174 @@
+package girvannewman.data;
+
+import java.util.Arrays;
+
+public class ComponentData {
+    private final int[] vertComm;
+    private final int[] commSize;
+    private int numComm;
+    private boolean labelled;
+
+    // totals over the original graph, used for modularity. commEdges counts edges with both ends in
+    // the community, commDeg sums the degrees of its nodes. In a weighted graph an edge counts its weight
+    // and a node its strength.
+    private final double[] commEdges;
+    private final double[] commDeg;
+    private double internalEdges;
+    private double sumDegSq;
+    private double selfDegSq;
+
+    // edges killed since the components were last brought up to date.
+    private int[] pendingKills;
+    private int numPending;
+
+    // scratch space for searches, a node is visited by the current search when mark equals its stamp.
+    private final int[] mark;
+    private int stamp;
+    private final int[] queue1;
+    private final int[] queue2;
+
+    public ComponentData(int numVert) {
+        if (numVert < 0) {
+            String msg = String.format("Number of vertices must be non-negative, received %d instead.", numVert);
+            throw new IllegalArgumentException(msg);
+        }
+
+        vertComm = new int[numVert];
+        Arrays.fill(vertComm, -1);
+
+        commSize = new int[numVert];
+        commEdges = new double[numVert];
+        commDeg = new double[numVert];
+        pendingKills = new int[16];
+
+        mark = new int[numVert];
+        queue1 = new int[numVert];
+        queue2 = new int[numVert];
+    }
+
+    public boolean isLabelled() {
+        return labelled;
+    }
+
+    public void setLabelled() {
+        labelled = true;
+        numPending = 0;
+    }
+
+    public int getNumVert() {
+        return vertComm.length;
+    }
+
+    public int getNumComm() {
+        return numComm;
+    }
+
+    public int getComm(int node) {
+        return vertComm[node];
+    }
+
+    public int getCommSize(int comm) {
+        return commSize[comm];
+    }
+
+    public int initNewComm() {
+        return numComm++;
+    }
+
+    public void putInComm(int comm, int node) {
+        if (vertComm[node] >= 0) {
+            commSize[vertComm[node]]--;
+        }
+
+        vertComm[node] = comm;
+        commSize[comm]++;
+    }
+
+    //<editor-fold desc="Modularity totals">
+    public double getCommEdges(int comm) {
+        return commEdges[comm];
+    }
+
+    public double getCommDeg(int comm) {
+        return commDeg[comm];
+    }
+
+    public void setCommTotals(int comm, double edges, double deg) {
+        internalEdges += edges - commEdges[comm];
+        sumDegSq += deg * deg - commDeg[comm] * commDeg[comm];
+
+        commEdges[comm] = edges;
+        commDeg[comm] = deg;
+    }
+
+    public double getInternalEdges() {
+        return internalEdges;
+    }
+
+    public double getSumDegSq() {
+        return sumDegSq;
+    }
+
+    public double getSelfDegSq() {
+        return selfDegSq;
+    }
+
+    public void setSelfDegSq(double selfDegSq) {
+        this.selfDegSq = selfDegSq;
+    }
+    //</editor-fold>
+
+    public int[] exportLabels() {
+        return vertComm.clone();
+    }
+
+    //<editor-fold desc="Pending kills">
+    public void addPendingKill(int edge) {
+        if (!labelled) {
+            return;
+        }
+
+        if (numPending == pendingKills.length) {
+            pendingKills = Arrays.copyOf(pendingKills, 2 * numPending);
+        }
+
+        pendingKills[numPending++] = edge;
+    }
+
+    public int getNumPending() {
+        return numPending;
+    }
+
+    public int getPendingKill(int index) {
+        return pendingKills[index];
+    }
+
+    public void clearPending() {
+        numPending = 0;
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Search scratch">
+    public int nextStamp() {
+        if (stamp >= Integer.MAX_VALUE - 2) {
+            Arrays.fill(mark, 0);
+            stamp = 0;
+        }
+
+        stamp += 2;
+        return stamp;
+    }
+
+    public int[] getMark() {
+        return mark;
+    }
+
+    public int[] getQueue1() {
+        return queue1;
+    }
+
+    public int[] getQueue2() {
+        return queue2;
+    }
+    //</editor-fold>
+}
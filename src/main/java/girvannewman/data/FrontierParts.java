@@ -0,0 +1,49 @@
+package girvannewman.data;
+
+import java.util.Arrays;
+
+// nodes found by each part of a level searched in parallel, one growable list per part so that parts never
+// write to the same list.
+public class FrontierParts {
+    private final int[][] nodes;
+    private final int[] sizes;
+
+    public FrontierParts(int numParts) {
+        if (numParts <= 0) {
+            String msg = String.format("Number of parts must be positive, received %d instead.", numParts);
+            throw new IllegalArgumentException(msg);
+        }
+
+        nodes = new int[numParts][16];
+        sizes = new int[numParts];
+    }
+
+    public int getNumParts() {
+        return nodes.length;
+    }
+
+    public void clear(int part) {
+        sizes[part] = 0;
+    }
+
+    public void add(int part, int node) {
+        if (sizes[part] == nodes[part].length) {
+            nodes[part] = Arrays.copyOf(nodes[part], 2 * sizes[part]);
+        }
+
+        nodes[part][sizes[part]++] = node;
+    }
+
+    public int getSize(int part) {
+        return sizes[part];
+    }
+
+    // keeps the first size nodes of the part.
+    public void setSize(int part, int size) {
+        sizes[part] = size;
+    }
+
+    public int[] getNodes(int part) {
+        return nodes[part];
+    }
+}
@@ -0,0 +1,126 @@
+package girvannewman.data;
+
+import java.util.Arrays;
+
+// binary min-heap of nodes that knows where each node sits, so a key can be lowered in place.
+public class IndexedHeap implements NodeQueue {
+    private final int[] heap;
+    private final double[] keys;
+    // index of each node in heap, -1 when absent.
+    private final int[] pos;
+    private int size;
+
+    public IndexedHeap(int numNode) {
+        if (numNode < 0) {
+            String msg = String.format("Number of nodes must be non-negative, received %d instead.", numNode);
+            throw new IllegalArgumentException(msg);
+        }
+
+        heap = new int[numNode];
+        keys = new double[numNode];
+        pos = new int[numNode];
+        Arrays.fill(pos, -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return pos[node] >= 0;
+    }
+
+    @Override
+    public void add(int node, double key) {
+        if (pos[node] >= 0) {
+            String msg = String.format("Node %d is already in the heap.", node);
+            throw new IllegalArgumentException(msg);
+        }
+
+        keys[node] = key;
+        heap[size] = node;
+        pos[node] = size;
+        siftUp(size++);
+    }
+
+    @Override
+    public void decrease(int node, double key) {
+        if (pos[node] < 0 || key > keys[node]) {
+            String msg = String.format("Node %d must be in the heap with a key of at least %s.", node, key);
+            throw new IllegalArgumentException(msg);
+        }
+
+        keys[node] = key;
+        siftUp(pos[node]);
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+
+        int top = heap[0];
+        pos[top] = -1;
+
+        if (--size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+
+            if (keys[heap[parent]] <= keys[node]) {
+                break;
+            }
+
+            heap[i] = heap[parent];
+            pos[heap[i]] = i;
+            i = parent;
+        }
+
+        heap[i] = node;
+        pos[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+
+        while (true) {
+            int child = 2 * i + 1;
+
+            if (child >= size) {
+                break;
+            }
+
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+
+            if (keys[heap[child]] >= keys[node]) {
+                break;
+            }
+
+            heap[i] = heap[child];
+            pos[heap[i]] = i;
+            i = child;
+        }
+
+        heap[i] = node;
+        pos[node] = i;
+    }
+}
@@ -0,0 +1,134 @@
+package girvannewman.data;
+
+import java.util.Arrays;
+
+// scratch space for a breadth-first search from up to WIDTH sources at once. Bit i of a node's mask stands
+// for the i-th source of the batch, and the path counts and dependencies of a node for all sources sit next
+// to each other at node * WIDTH .. node * WIDTH + WIDTH - 1.
+public class MsBfsWorkspace {
+    public static final int WIDTH = 64;
+
+    private final long[] seen;
+    private final long[] next;
+    // masks of the level below the one being sent back, used while accumulating.
+    private final long[] below;
+    private final double[] sigma;
+    private final double[] delta;
+    private final int[] discovered;
+
+    // (node, mask) entries of the search, where the mask holds the sources reaching the node on that level.
+    // Entries of level d are entryNode[levelStart[d]] .. entryNode[levelStart[d + 1] - 1].
+    private int[] entryNode;
+    private long[] entryMask;
+    private int numEntries;
+    private int[] levelStart;
+    private int numLevels;
+
+    public MsBfsWorkspace(int numVert) {
+        if (numVert < 0 || (long) numVert * WIDTH > Integer.MAX_VALUE - 8) {
+            String msg = String.format("Number of vertices must be within [0, %d], received %d instead.",
+                    (Integer.MAX_VALUE - 8) / WIDTH, numVert);
+            throw new IllegalArgumentException(msg);
+        }
+
+        seen = new long[numVert];
+        next = new long[numVert];
+        below = new long[numVert];
+        sigma = new double[numVert * WIDTH];
+        delta = new double[numVert * WIDTH];
+        discovered = new int[numVert];
+
+        entryNode = new int[Math.max(16, numVert)];
+        entryMask = new long[entryNode.length];
+        levelStart = new int[16];
+    }
+
+    public boolean fits(int numVert) {
+        return seen.length == numVert;
+    }
+
+    // bytes taken by a workspace for numVert vertices, not counting the entries.
+    public static long bytesFor(int numVert) {
+        return (long) numVert * (2L * 8 * WIDTH + 3 * 8 + 4);
+    }
+
+    public long[] getSeen() {
+        return seen;
+    }
+
+    public long[] getNext() {
+        return next;
+    }
+
+    public long[] getBelow() {
+        return below;
+    }
+
+    public double[] getSigma() {
+        return sigma;
+    }
+
+    public double[] getDelta() {
+        return delta;
+    }
+
+    // nodes first reached on the level being searched, in order.
+    public int[] getDiscovered() {
+        return discovered;
+    }
+
+    //<editor-fold desc="Entries">
+    public void addEntry(int node, long mask) {
+        if (numEntries == entryNode.length) {
+            entryNode = Arrays.copyOf(entryNode, 2 * numEntries);
+            entryMask = Arrays.copyOf(entryMask, 2 * numEntries);
+        }
+
+        entryNode[numEntries] = node;
+        entryMask[numEntries++] = mask;
+    }
+
+    // closes the level holding the entries added since the last call.
+    public void endLevel() {
+        if (numLevels + 2 > levelStart.length) {
+            levelStart = Arrays.copyOf(levelStart, 2 * levelStart.length);
+        }
+
+        levelStart[++numLevels] = numEntries;
+    }
+
+    public int getNumLevels() {
+        return numLevels;
+    }
+
+    public int getLevelStart(int level) {
+        return levelStart[level];
+    }
+
+    public int getEntryNode(int entry) {
+        return entryNode[entry];
+    }
+
+    public long getEntryMask(int entry) {
+        return entryMask[entry];
+    }
+
+    // clears what the last search left behind, touching only the nodes it reached.
+    public void reset() {
+        for (int e = 0; e < numEntries; e++) {
+            int node = entryNode[e];
+            seen[node] = 0;
+
+            int base = node * WIDTH;
+            for (long bits = entryMask[e]; bits != 0; bits &= bits - 1) {
+                int i = Long.numberOfTrailingZeros(bits);
+                sigma[base + i] = 0.0;
+                delta[base + i] = 0.0;
+            }
+        }
+
+        numEntries = 0;
+        numLevels = 0;
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,15 @@
+package girvannewman.data;
+
+// priority queue of nodes by tentative path length, as used by Dijkstra's algorithm.
+public interface NodeQueue {
+    boolean isEmpty();
+
+    boolean contains(int node);
+
+    void add(int node, double key);
+
+    // key must not be larger than the current key of node.
+    void decrease(int node, double key);
+
+    int poll();
+}
@@ -0,0 +1,194 @@
+package girvannewman.data;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// history of a run. Iteration 0 stands for the unsplit graph, with an objective of 0 and no edges removed.
+// The edges removed on iteration i are edges[iterStart[i]] .. edges[iterStart[i + 1] - 1], sorted ascending.
+public class RemovalLog {
+    private static final int MAGIC = 0x474E524C;
+    private static final int VERSION = 1;
+
+    private int[] edges;
+    private int numRemoved;
+
+    private int[] iterStart;
+    private double[] objs;
+    private int numIter;
+
+    public RemovalLog() {
+        edges = new int[16];
+        iterStart = new int[17];
+        objs = new double[16];
+    }
+
+    public void add(double obj, Collection<Integer> removed) {
+        int[] sorted = new int[removed.size()];
+        int i = 0;
+        for (int edge : removed) {
+            sorted[i++] = edge;
+        }
+
+        Arrays.sort(sorted);
+        add(obj, sorted);
+    }
+
+    public void add(double obj, int[] removed) {
+        if (numRemoved + removed.length > edges.length) {
+            edges = Arrays.copyOf(edges, Math.max(2 * edges.length, numRemoved + removed.length));
+        }
+
+        System.arraycopy(removed, 0, edges, numRemoved, removed.length);
+        numRemoved += removed.length;
+
+        numIter++;
+        if (numIter == objs.length) {
+            objs = Arrays.copyOf(objs, 2 * numIter);
+            iterStart = Arrays.copyOf(iterStart, 2 * numIter + 1);
+        }
+
+        objs[numIter] = obj;
+        iterStart[numIter + 1] = numRemoved;
+    }
+
+    // number of completed iterations, not counting iteration 0.
+    public int getNumIter() {
+        return numIter;
+    }
+
+    public int getNumRemoved() {
+        return numRemoved;
+    }
+
+    public double getObj(int iter) {
+        checkIter(iter);
+        return objs[iter];
+    }
+
+    public int getNumRemoved(int iter) {
+        checkIter(iter);
+        return iterStart[iter + 1] - iterStart[iter];
+    }
+
+    public int getRemoved(int iter, int index) {
+        return edges[iterStart[iter] + index];
+    }
+
+    // position of the first edge removed on iter in the overall removal order.
+    public int getIterStart(int iter) {
+        checkIter(iter);
+        return iterStart[iter];
+    }
+
+    public int getRemovedAt(int position) {
+        return edges[position];
+    }
+
+    private void checkIter(int iter) {
+        if (iter < 0 || iter > numIter) {
+            String msg = String.format("Iteration must be within [0, %d], received %d instead.", numIter, iter);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    //<editor-fold desc="Export">
+    // layout, big-endian: int magic, int version, int numIter, int numRemoved,
+    // int[numIter + 2] iterStart, int[numRemoved] edges, double[numIter + 1] objs, int CRC32.
+    public void export(Path path) throws IOException {
+        try (OutputStream file = Files.newOutputStream(path)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numIter);
+            out.writeInt(numRemoved);
+
+            for (int iter = 0; iter <= numIter + 1; iter++) {
+                out.writeInt(iterStart[iter]);
+            }
+
+            for (int i = 0; i < numRemoved; i++) {
+                out.writeInt(edges[i]);
+            }
+
+            for (int iter = 0; iter <= numIter; iter++) {
+                out.writeDouble(objs[iter]);
+            }
+
+            out.flush();
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+        }
+    }
+
+    public static RemovalLog load(Path path) throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path))) {
+            CheckedInputStream checked = new CheckedInputStream(file, new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                String msg = String.format("File %s is not a version %d removal log.", path, VERSION);
+                throw new IllegalArgumentException(msg);
+            }
+
+            int numIter = in.readInt();
+            int numRemoved = in.readInt();
+
+            // check the counts against the file size before allocating anything
+            long size = 16L + 4L * (numIter + 2L) + 4L * numRemoved + 8L * (numIter + 1L) + 4L;
+
+            if (numIter < 0 || numRemoved < 0 || size != Files.size(path)) {
+                String msg = String.format("Removal log %s holds invalid counts %d and %d.", path, numIter, numRemoved);
+                throw new IllegalArgumentException(msg);
+            }
+
+            RemovalLog log = new RemovalLog();
+            log.numIter = numIter;
+            log.numRemoved = numRemoved;
+            log.iterStart = new int[numIter + 2];
+            log.edges = new int[Math.max(16, numRemoved)];
+            log.objs = new double[numIter + 1];
+
+            for (int iter = 0; iter <= numIter + 1; iter++) {
+                log.iterStart[iter] = in.readInt();
+
+                if (iter > 0 && log.iterStart[iter] < log.iterStart[iter - 1]) {
+                    String msg = String.format("Iteration boundaries in %s must not decrease.", path);
+                    throw new IllegalArgumentException(msg);
+                }
+            }
+
+            if (log.iterStart[0] != 0 || log.iterStart[numIter + 1] != numRemoved) {
+                String msg = String.format("Iteration boundaries in %s must run from 0 to %d.", path, numRemoved);
+                throw new IllegalArgumentException(msg);
+            }
+
+            for (int i = 0; i < numRemoved; i++) {
+                log.edges[i] = in.readInt();
+            }
+
+            for (int iter = 0; iter <= numIter; iter++) {
+                log.objs[iter] = in.readDouble();
+            }
+
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) {
+                String msg = String.format("Checksum of %s does not match its contents.", path);
+                throw new IllegalArgumentException(msg);
+            }
+
+            return log;
+        } catch (EOFException e) {
+            String msg = String.format("Removal log %s is truncated.", path);
+            throw new IllegalArgumentException(msg, e);
+        }
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,201 @@
+package girvannewman.data;
+
+import java.util.Arrays;
+
+// shortest-path DAGs of single sources, kept between betweenness calculations so that removing an edge
+// only sends the sources whose DAG used it back to be recalculated. Nodes are kept a component at a time,
+// and each source stores the length and path count of every node in that component, plus the order in
+// which it reached them. An edge (u, v) lies on the DAG of a source when the lengths of u and v differ by
+// exactly its length, which needs path lengths without rounding.
+public class SourceDags {
+    // length and sigma as doubles and one int of reach order, per source and node.
+    public static final int BYTES_PER_ENTRY = 20;
+
+    private final long memoryCap;
+    private long memoryUsed;
+
+    // index of each kept node within its component, -1 for nodes that are not kept, and the nodes of the
+    // component it was kept with.
+    private final int[] localIndex;
+    private final int[][] members;
+
+    private final double[][] length;
+    private final double[][] sigma;
+    private final int[][] reached;
+    private final int[] numReached;
+
+    // kept sources whose contribution was taken out of the cache and has to be calculated again.
+    private int[] pending;
+    private int numPending;
+    private final boolean[] isPending;
+
+    public SourceDags(int numVert, long memoryCap) {
+        if (numVert < 0) {
+            String msg = String.format("Number of vertices must be non-negative, received %d instead.", numVert);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (memoryCap <= 0) {
+            String msg = String.format("Memory cap must be positive, received %d bytes instead.", memoryCap);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.memoryCap = memoryCap;
+
+        localIndex = new int[numVert];
+        Arrays.fill(localIndex, -1);
+        members = new int[numVert][];
+
+        length = new double[numVert][];
+        sigma = new double[numVert][];
+        reached = new int[numVert][];
+        numReached = new int[numVert];
+
+        pending = new int[16];
+        isPending = new boolean[numVert];
+    }
+
+    public long getMemoryCap() {
+        return memoryCap;
+    }
+
+    public long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    // keeps the DAGs of the component nodes[0 .. numNodes - 1] if they fit within the cap. Their DAGs
+    // only become usable once every node of the component has been stored.
+    public boolean tryKeep(int[] nodes, int numNodes) {
+        long bytes = (long) BYTES_PER_ENTRY * numNodes * numNodes;
+
+        if (numNodes == 0 || bytes > memoryCap - memoryUsed) {
+            return false;
+        }
+
+        memoryUsed += bytes;
+        int[] group = Arrays.copyOf(nodes, numNodes);
+
+        for (int i = 0; i < numNodes; i++) {
+            int node = nodes[i];
+            localIndex[node] = i;
+            members[node] = group;
+
+            length[node] = new double[numNodes];
+            Arrays.fill(length[node], Double.POSITIVE_INFINITY);
+            sigma[node] = new double[numNodes];
+            reached[node] = new int[numNodes];
+        }
+
+        return true;
+    }
+
+    public boolean isKept(int node) {
+        return localIndex[node] >= 0;
+    }
+
+    // nodes of the component node was kept with, which may have split since.
+    public int[] getGroup(int node) {
+        return members[node];
+    }
+
+    // forgets the DAGs of the component node was kept with and credits their memory back.
+    public void drop(int node) {
+        int[] group = members[node];
+
+        if (group == null) {
+            return;
+        }
+
+        for (int n : group) {
+            localIndex[n] = -1;
+            members[n] = null;
+            length[n] = null;
+            sigma[n] = null;
+            reached[n] = null;
+            numReached[n] = 0;
+        }
+
+        memoryUsed -= (long) BYTES_PER_ENTRY * group.length * group.length;
+    }
+
+    // copies the DAG the workspace holds for src, with path lengths counted in hops when hops is set.
+    // Sources are stored independently of each other, so different sources may be stored concurrently.
+    public void store(int src, BfsWorkspace ws, boolean hops) {
+        double[] len = length[src];
+        double[] sig = sigma[src];
+        int[] order = reached[src];
+
+        for (int i = 0; i < numReached[src]; i++) {
+            len[localIndex[order[i]]] = Double.POSITIVE_INFINITY;
+        }
+
+        int[] queue = ws.getQueue();
+        int[] dist = ws.getDist();
+        double[] wsLength = hops ? null : ws.getLength();
+        double[] wsSigma = ws.getSigma();
+
+        for (int i = 0; i < ws.getNumTouched(); i++) {
+            int node = queue[i];
+            int local = localIndex[node];
+
+            order[i] = node;
+            len[local] = hops ? dist[node] : wsLength[node];
+            sig[local] = wsSigma[node];
+        }
+
+        numReached[src] = ws.getNumTouched();
+    }
+
+    // infinite when node is not reached from src.
+    public double getLength(int src, int node) {
+        return length[src][localIndex[node]];
+    }
+
+    public double getSigma(int src, int node) {
+        return sigma[src][localIndex[node]];
+    }
+
+    // nodes reached from src in order of path length, src itself first.
+    public int getNumReached(int src) {
+        return numReached[src];
+    }
+
+    public int getReached(int src, int index) {
+        return reached[src][index];
+    }
+
+    //<editor-fold desc="Pending sources">
+    public void addPending(int src) {
+        if (isPending[src]) {
+            return;
+        }
+
+        if (numPending == pending.length) {
+            pending = Arrays.copyOf(pending, 2 * numPending);
+        }
+
+        isPending[src] = true;
+        pending[numPending++] = src;
+    }
+
+    public boolean isPending(int src) {
+        return isPending[src];
+    }
+
+    public int getNumPending() {
+        return numPending;
+    }
+
+    public int getPending(int index) {
+        return pending[index];
+    }
+
+    public void clearPending() {
+        for (int i = 0; i < numPending; i++) {
+            isPending[pending[i]] = false;
+        }
+
+        numPending = 0;
+    }
+    //</editor-fold>
+}
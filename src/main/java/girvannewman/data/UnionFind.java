@@ -0,0 +1,63 @@
+package girvannewman.data;
+
+public class UnionFind {
+    private final int[] parent;
+    private final int[] size;
+    private int numSets;
+
+    public UnionFind(int numElem) {
+        if (numElem < 0) {
+            String msg = String.format("Number of elements must be non-negative, received %d instead.", numElem);
+            throw new IllegalArgumentException(msg);
+        }
+
+        parent = new int[numElem];
+        size = new int[numElem];
+        numSets = numElem;
+
+        for (int i = 0; i < numElem; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+    }
+
+    public int find(int elem) {
+        // path halving, every other node on the way up is pointed at its grandparent.
+        while (parent[elem] != elem) {
+            parent[elem] = parent[parent[elem]];
+            elem = parent[elem];
+        }
+
+        return elem;
+    }
+
+    // returns whether the two sets were merged, i.e. were disjoint before.
+    public boolean union(int elem1, int elem2) {
+        int root1 = find(elem1);
+        int root2 = find(elem2);
+
+        if (root1 == root2) {
+            return false;
+        }
+
+        if (size[root1] < size[root2]) {
+            int temp = root1;
+            root1 = root2;
+            root2 = temp;
+        }
+
+        parent[root2] = root1;
+        size[root1] += size[root2];
+        numSets--;
+
+        return true;
+    }
+
+    public int getNumSets() {
+        return numSets;
+    }
+
+    public int getSize(int elem) {
+        return size[find(elem)];
+    }
+}
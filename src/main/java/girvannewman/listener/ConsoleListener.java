@@ -0,0 +1,57 @@
+package girvannewman.listener;
+
+import girvannewman.IterationEvent;
+import girvannewman.Solution;
+import girvannewman.SolverListener;
+
+import java.io.PrintStream;
+
+public class ConsoleListener implements SolverListener {
+    private final PrintStream out;
+    private final int every;
+
+    public ConsoleListener() {
+        this(System.out, 10);
+    }
+
+    public ConsoleListener(PrintStream out, int every) {
+        if (out == null) {
+            throw new NullPointerException("Output stream is null.");
+        }
+
+        if (every <= 0) {
+            String msg = String.format("Print interval must be positive, received %d instead.", every);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.out = out;
+        this.every = every;
+    }
+
+    @Override
+    public void onStart(Solution s) {
+        int numIter = s.getRemovalLog().getNumIter();
+
+        if (numIter == 0) {
+            out.println("Solver started");
+        } else {
+            String msg = String.format("Resuming after iteration %d", numIter);
+            out.println(msg);
+        }
+    }
+
+    @Override
+    public void onIteration(IterationEvent event) {
+        if (event.getIter() % every == 0) {
+            String msg = String.format("Now on iteration %d \t obj = %f \t opt = %f",
+                    event.getIter(), event.getMod(), event.getOptMod());
+            out.println(msg);
+        }
+    }
+
+    @Override
+    public void onFinish(Solution s) {
+        String msg = String.format("Solver finished after %d iterations", s.getRemovalLog().getNumIter());
+        out.println(msg);
+    }
+}
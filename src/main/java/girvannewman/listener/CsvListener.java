@@ -0,0 +1,91 @@
+package girvannewman.listener;
+
+import girvannewman.IterationEvent;
+import girvannewman.Solution;
+import girvannewman.SolverListener;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// one row per iteration. Rows are flushed as they are written, so the file stays readable if the run dies.
+public class CsvListener implements SolverListener, Closeable {
+    public static final String HEADER = "iter,betw_ns,kill_ns,find_comm_ns,mod_ns,num_bfs,num_removed," +
+            "num_comm,mod,opt_mod,allocated_bytes,edges_removed";
+
+    private final Writer out;
+
+    public CsvListener(Path path) throws IOException {
+        this(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    public CsvListener(Writer out) {
+        if (out == null) {
+            throw new NullPointerException("Writer is null.");
+        }
+
+        this.out = out;
+        write(HEADER);
+    }
+
+    @Override
+    public void onIteration(IterationEvent event) {
+        int[] removed = new int[event.getEdgesRemoved().size()];
+        int i = 0;
+        for (int edge : event.getEdgesRemoved()) {
+            removed[i++] = edge;
+        }
+
+        Arrays.sort(removed);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(event.getIter()).append(',')
+                .append(event.getBetwNanos()).append(',')
+                .append(event.getKillNanos()).append(',')
+                .append(event.getFindCommNanos()).append(',')
+                .append(event.getModNanos()).append(',')
+                .append(event.getNumBfs()).append(',')
+                .append(removed.length).append(',')
+                .append(event.getNumComm()).append(',')
+                .append(event.getMod()).append(',')
+                .append(event.getOptMod()).append(',')
+                .append(event.getAllocatedBytes()).append(',');
+
+        // edge ids are separated by spaces to keep them in one column.
+        for (i = 0; i < removed.length; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+
+            sb.append(removed[i]);
+        }
+
+        write(sb.toString());
+    }
+
+    @Override
+    public void onFinish(Solution s) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void write(String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package girvannewman.listener;
+
+// counts non-negative values in power-of-two buckets, bucket b holds values in [2^(b-1), 2^b) and
+// bucket 0 holds zero.
+public class Histogram {
+    private static final int NUM_BUCKETS = 64;
+
+    private final long[] buckets = new long[NUM_BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public void record(long value) {
+        if (value < 0) {
+            String msg = String.format("Value must be non-negative, received %d instead.", value);
+            throw new IllegalArgumentException(msg);
+        }
+
+        buckets[NUM_BUCKETS - Long.numberOfLeadingZeros(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    public long getMax() {
+        return count > 0 ? max : 0;
+    }
+
+    public double getMean() {
+        return count > 0 ? (double) sum / count : 0.0;
+    }
+
+    public long getBucketCount(int bucket) {
+        return buckets[bucket];
+    }
+
+    public int getNumBuckets() {
+        return NUM_BUCKETS;
+    }
+
+    // upper bound of the bucket holding the given quantile, capped by the largest value seen.
+    public long getPercentile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            String msg = String.format("Quantile must be within [0, 1], received %f instead.", quantile);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            seen += buckets[bucket];
+
+            if (seen >= rank) {
+                long upper = bucket == 0 ? 0 : (bucket == NUM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1);
+                return Math.min(upper, max);
+            }
+        }
+
+        return max;
+    }
+}
@@ -0,0 +1,70 @@
+package girvannewman.listener;
+
+import girvannewman.IterationEvent;
+import girvannewman.SolverListener;
+
+// keeps the distribution of step times and allocations in memory, in nanoseconds and bytes.
+public class HistogramListener implements SolverListener {
+    private final Histogram betw = new Histogram();
+    private final Histogram kill = new Histogram();
+    private final Histogram findComm = new Histogram();
+    private final Histogram mod = new Histogram();
+    private final Histogram total = new Histogram();
+    private final Histogram allocated = new Histogram();
+
+    @Override
+    public void onIteration(IterationEvent event) {
+        betw.record(event.getBetwNanos());
+        kill.record(event.getKillNanos());
+        findComm.record(event.getFindCommNanos());
+        mod.record(event.getModNanos());
+        total.record(event.getTotalNanos());
+
+        if (event.getAllocatedBytes() >= 0) {
+            allocated.record(event.getAllocatedBytes());
+        }
+    }
+
+    public Histogram getBetw() {
+        return betw;
+    }
+
+    public Histogram getKill() {
+        return kill;
+    }
+
+    public Histogram getFindComm() {
+        return findComm;
+    }
+
+    public Histogram getMod() {
+        return mod;
+    }
+
+    public Histogram getTotal() {
+        return total;
+    }
+
+    public Histogram getAllocated() {
+        return allocated;
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-10s %8s %12s %12s %12s %12s%n", "step", "count", "mean", "p50", "p99", "max"));
+
+        appendRow(sb, "betw", betw);
+        appendRow(sb, "kill", kill);
+        appendRow(sb, "findComm", findComm);
+        appendRow(sb, "mod", mod);
+        appendRow(sb, "total", total);
+        appendRow(sb, "alloc", allocated);
+
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String name, Histogram h) {
+        sb.append(String.format("%-10s %8d %12.0f %12d %12d %12d%n", name, h.getCount(), h.getMean(),
+                h.getPercentile(0.5), h.getPercentile(0.99), h.getMax()));
+    }
+}
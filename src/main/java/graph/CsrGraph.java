@@ -0,0 +1,403 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+public class CsrGraph {
+    private final int numVertex;
+    private final int numEdge;
+
+    // neighbors of v are targets[offsets[v]] .. targets[offsets[v + 1] - 1], sorted ascending,
+    // and edgeIds is aligned with targets.
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] edgeIds;
+
+    // slot in targets of the (smaller, larger) half of each edge.
+    private final int[] edgeSlot;
+
+    // weight of each edge by id, null when every edge weighs 1.
+    private final double[] weights;
+    private double totalWeight;
+    private double minWeight = 1.0;
+    private double maxWeight = 1.0;
+    private boolean integerWeights = true;
+
+    public CsrGraph(Graph graph) {
+        Map<Integer, Set<Integer>> neighborsSet = graph.exportGraph();
+        numVertex = graph.getNumVertex();
+        numEdge = graph.getNumEdge();
+
+        offsets = new int[numVertex + 1];
+        for (int node : neighborsSet.keySet()) {
+            if (node >= numVertex) {
+                String msg = String.format("Node indices must be within [0, %d), received %d instead.",
+                        numVertex, node);
+                throw new IllegalArgumentException(msg);
+            }
+
+            offsets[node + 1] = neighborsSet.get(node).size();
+        }
+
+        for (int node = 0; node < numVertex; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        targets = new int[2 * numEdge];
+        for (int node : neighborsSet.keySet()) {
+            int slot = offsets[node];
+
+            for (int neighbor : neighborsSet.get(node)) {
+                targets[slot++] = neighbor;
+            }
+
+            Arrays.sort(targets, offsets[node], slot);
+        }
+
+        edgeIds = new int[2 * numEdge];
+        edgeSlot = new int[numEdge];
+        assignEdgeIds();
+
+        if (graph.isWeighted()) {
+            weights = new double[numEdge];
+
+            for (int edge = 0; edge < numEdge; edge++) {
+                weights[edge] = graph.getWeight(getEdgeSource(edge), getEdgeTarget(edge));
+            }
+        } else {
+            weights = null;
+        }
+
+        summarizeWeights();
+    }
+
+    // repeated edges are merged, adding up their weights if the list is weighted.
+    public CsrGraph(EdgeList edges) {
+        numVertex = edges.getNumVertex();
+
+        offsets = new int[numVertex + 1];
+        for (int i = 0; i < edges.getNumEdge(); i++) {
+            offsets[edges.getSource(i) + 1]++;
+            offsets[edges.getTarget(i) + 1]++;
+        }
+
+        for (int node = 0; node < numVertex; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        int[] slots = new int[2 * edges.getNumEdge()];
+        double[] slotWeights = edges.isWeighted() ? new double[slots.length] : null;
+        int[] fill = Arrays.copyOf(offsets, numVertex);
+        for (int i = 0; i < edges.getNumEdge(); i++) {
+            int from = edges.getSource(i);
+            int to = edges.getTarget(i);
+
+            if (slotWeights != null) {
+                slotWeights[fill[from]] = edges.getWeight(i);
+                slotWeights[fill[to]] = edges.getWeight(i);
+            }
+
+            slots[fill[from]++] = to;
+            slots[fill[to]++] = from;
+        }
+
+        // sort each row and drop repeated edges, compacting the rows towards the front.
+        long[] rowKeys = slotWeights != null ? new long[maxRowLength()] : null;
+        double[] rowWeights = slotWeights != null ? new double[rowKeys.length] : null;
+
+        int numSlot = 0;
+        for (int node = 0; node < numVertex; node++) {
+            int start = offsets[node];
+            int end = offsets[node + 1];
+
+            if (slotWeights == null) {
+                Arrays.sort(slots, start, end);
+            } else {
+                sortRow(slots, slotWeights, start, end, rowKeys, rowWeights);
+            }
+
+            offsets[node] = numSlot;
+
+            for (int slot = start; slot < end; slot++) {
+                if (slot == start || slots[slot] != slots[slot - 1]) {
+                    if (slotWeights != null) {
+                        slotWeights[numSlot] = slotWeights[slot];
+                    }
+
+                    slots[numSlot++] = slots[slot];
+                } else if (slotWeights != null) {
+                    slotWeights[numSlot - 1] += slotWeights[slot];
+                }
+            }
+        }
+
+        offsets[numVertex] = numSlot;
+        numEdge = numSlot / 2;
+        targets = numSlot == slots.length ? slots : Arrays.copyOf(slots, numSlot);
+
+        edgeIds = new int[2 * numEdge];
+        edgeSlot = new int[numEdge];
+        assignEdgeIds();
+
+        weights = slotWeights != null ? toEdgeWeights(slotWeights) : null;
+        summarizeWeights();
+    }
+
+    // takes ownership of the arrays, rows must be sorted and every edge must appear in both rows.
+    public CsrGraph(int[] offsets, int[] targets) {
+        this(offsets, targets, null);
+    }
+
+    // weights are indexed by edge id and may be null for an unweighted graph.
+    public CsrGraph(int[] offsets, int[] targets, double[] weights) {
+        if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != targets.length
+                || targets.length % 2 != 0) {
+            String msg = String.format("Offsets must run from 0 to an even %d, received %d rows instead.",
+                    targets.length, offsets.length - 1);
+            throw new IllegalArgumentException(msg);
+        }
+
+        numVertex = offsets.length - 1;
+        numEdge = targets.length / 2;
+        this.offsets = offsets;
+        this.targets = targets;
+        checkRows();
+
+        edgeIds = new int[2 * numEdge];
+        edgeSlot = new int[numEdge];
+        assignEdgeIds();
+
+        if (weights != null) {
+            checkWeights(weights);
+        }
+
+        this.weights = weights;
+        summarizeWeights();
+    }
+
+    //<editor-fold desc="Constructor helpers">
+    private void checkRows() {
+        for (int node = 0; node < numVertex; node++) {
+            if (offsets[node] > offsets[node + 1]) {
+                String msg = String.format("Offsets must not decrease, row %d ends before it starts.", node);
+                throw new IllegalArgumentException(msg);
+            }
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int neighbor = targets[slot];
+
+                if (neighbor < 0 || neighbor >= numVertex || neighbor == node
+                        || (slot > offsets[node] && targets[slot - 1] >= neighbor)) {
+                    String msg = String.format("Row %d must hold sorted, distinct neighbors within [0, %d), " +
+                            "received %d instead.", node, numVertex, neighbor);
+                    throw new IllegalArgumentException(msg);
+                }
+            }
+        }
+    }
+
+    private void assignEdgeIds() {
+        // edges are numbered by (smaller, larger) endpoint in lexicographic order. Rows are sorted and
+        // visited in ascending order, so the mirrored slot of each edge is the next unfilled slot in the
+        // row of its larger endpoint.
+        int[] mirror = Arrays.copyOf(offsets, numVertex);
+
+        int edge = 0;
+        for (int node = 0; node < numVertex; node++) {
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int neighbor = targets[slot];
+
+                if (neighbor > node) {
+                    if (mirror[neighbor] == offsets[neighbor + 1] || targets[mirror[neighbor]] != node) {
+                        String msg = String.format("Edge (%d, %d) is missing from row %d.", node, neighbor, neighbor);
+                        throw new IllegalArgumentException(msg);
+                    }
+
+                    edgeIds[slot] = edge;
+                    edgeIds[mirror[neighbor]++] = edge;
+                    edgeSlot[edge] = slot;
+                    edge++;
+                }
+            }
+        }
+    }
+
+    private int maxRowLength() {
+        int max = 0;
+        for (int node = 0; node < numVertex; node++) {
+            max = Math.max(max, offsets[node + 1] - offsets[node]);
+        }
+
+        return max;
+    }
+
+    // sorts a row by neighbor and carries the weights along. Each key holds the neighbor in its upper half
+    // and the position in the row in its lower half, so repeated edges keep the order they were read in.
+    private static void sortRow(int[] slots, double[] slotWeights, int start, int end,
+                                long[] rowKeys, double[] rowWeights) {
+        int length = end - start;
+
+        for (int i = 0; i < length; i++) {
+            rowKeys[i] = ((long) slots[start + i] << 32) | i;
+            rowWeights[i] = slotWeights[start + i];
+        }
+
+        Arrays.sort(rowKeys, 0, length);
+
+        for (int i = 0; i < length; i++) {
+            slots[start + i] = (int) (rowKeys[i] >>> 32);
+            slotWeights[start + i] = rowWeights[(int) rowKeys[i]];
+        }
+    }
+
+    private double[] toEdgeWeights(double[] slotWeights) {
+        double[] edgeWeights = new double[numEdge];
+
+        for (int edge = 0; edge < numEdge; edge++) {
+            edgeWeights[edge] = slotWeights[edgeSlot[edge]];
+        }
+
+        return edgeWeights;
+    }
+
+    private void checkWeights(double[] weights) {
+        if (weights.length != numEdge) {
+            String msg = String.format("Expected a weight for each of the %d edges, received %d instead.",
+                    numEdge, weights.length);
+            throw new IllegalArgumentException(msg);
+        }
+
+        for (int edge = 0; edge < numEdge; edge++) {
+            if (!(weights[edge] > 0.0) || Double.isInfinite(weights[edge])) {
+                String msg = String.format("Weight of edge %d must be positive and finite, received %s instead.",
+                        edge, weights[edge]);
+                throw new IllegalArgumentException(msg);
+            }
+        }
+    }
+
+    private void summarizeWeights() {
+        if (weights == null) {
+            totalWeight = numEdge;
+            return;
+        }
+
+        minWeight = Double.POSITIVE_INFINITY;
+        maxWeight = 0.0;
+
+        for (double weight : weights) {
+            totalWeight += weight;
+            minWeight = Math.min(minWeight, weight);
+            maxWeight = Math.max(maxWeight, weight);
+            integerWeights &= weight == Math.rint(weight);
+        }
+
+        if (numEdge == 0) {
+            minWeight = 1.0;
+            maxWeight = 1.0;
+        }
+    }
+    //</editor-fold>
+
+    public int getNumVertex() {
+        return numVertex;
+    }
+
+    public int getNumEdge() {
+        return numEdge;
+    }
+
+    public int getDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int findEdge(int node1, int node2) {
+        if (node1 < 0 || node1 >= numVertex) {
+            return -1;
+        }
+
+        int slot = Arrays.binarySearch(targets, offsets[node1], offsets[node1 + 1], node2);
+
+        return slot < 0 ? -1 : edgeIds[slot];
+    }
+
+    public int getEdgeSource(int edge) {
+        int slot = edgeSlot[edge];
+        int node = Arrays.binarySearch(offsets, slot);
+
+        if (node < 0) {
+            return -node - 2;
+        }
+
+        // skip vertices without neighbors that share the same offset.
+        while (offsets[node + 1] == slot) {
+            node++;
+        }
+
+        return node;
+    }
+
+    public int getEdgeTarget(int edge) {
+        return targets[edgeSlot[edge]];
+    }
+
+    //<editor-fold desc="Weights">
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    public double getWeight(int edge) {
+        return weights == null ? 1.0 : weights[edge];
+    }
+
+    // sum of the weights of all edges, the number of edges for an unweighted graph.
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public double getMinWeight() {
+        return minWeight;
+    }
+
+    public double getMaxWeight() {
+        return maxWeight;
+    }
+
+    public boolean hasIntegerWeights() {
+        return integerWeights;
+    }
+
+    // sum of the weights of the edges at node, its degree for an unweighted graph.
+    public double getStrength(int node) {
+        if (weights == null) {
+            return getDegree(node);
+        }
+
+        double strength = 0.0;
+        for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+            strength += weights[edgeIds[slot]];
+        }
+
+        return strength;
+    }
+    //</editor-fold>
+
+    // the arrays below are shared, not copied, and must not be modified. getWeights returns null for
+    // an unweighted graph.
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    public int[] getEdgeIds() {
+        return edgeIds;
+    }
+
+    public double[] getWeights() {
+        return weights;
+    }
+}
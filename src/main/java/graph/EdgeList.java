@@ -0,0 +1,111 @@
+package graph;
+
+import java.util.Arrays;
+
+public class EdgeList {
+    // edges as read, duplicates and both orientations of an edge are kept.
+    private int[] sources;
+    private int[] targets;
+    private int numEdge;
+    private int maxNode = -1;
+
+    // null until the list is weighted, edges added without a weight then count as 1.
+    private double[] weights;
+
+    public EdgeList() {
+        this(16);
+    }
+
+    public EdgeList(int capacity) {
+        if (capacity < 0) {
+            String msg = String.format("Capacity must be non-negative, received %d instead.", capacity);
+            throw new IllegalArgumentException(msg);
+        }
+
+        sources = new int[capacity];
+        targets = new int[capacity];
+    }
+
+    public void add(int from, int to) {
+        append(from, to);
+
+        if (weights != null) {
+            weights[numEdge - 1] = 1.0;
+        }
+    }
+
+    public void add(int from, int to, double weight) {
+        if (!(weight > 0.0) || Double.isInfinite(weight)) {
+            String msg = String.format("Weight of edge (%d, %d) must be positive and finite, received %s instead.",
+                    from, to, weight);
+            throw new IllegalArgumentException(msg);
+        }
+
+        append(from, to);
+        setWeighted();
+        weights[numEdge - 1] = weight;
+    }
+
+    private void append(int from, int to) {
+        if (from < 0 || to < 0) {
+            String msg = String.format("Node index cannot be negative, %d and %d received instead.", from, to);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (from == to) {
+            String msg = String.format("From node and to node must not be the same, %d received instead.", from);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (numEdge == sources.length) {
+            int capacity = Math.max(16, 2 * numEdge);
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+
+            if (weights != null) {
+                weights = Arrays.copyOf(weights, capacity);
+            }
+        }
+
+        sources[numEdge] = from;
+        targets[numEdge] = to;
+        numEdge++;
+
+        maxNode = Math.max(maxNode, Math.max(from, to));
+    }
+
+    public int getNumEdge() {
+        return numEdge;
+    }
+
+    // nodes are numbered 0 .. maxNode, ids that never appear in an edge are isolated vertices.
+    public int getNumVertex() {
+        return maxNode + 1;
+    }
+
+    public int getSource(int index) {
+        return sources[index];
+    }
+
+    public int getTarget(int index) {
+        return targets[index];
+    }
+
+    // in a weighted list repeated edges add up to one edge, otherwise they collapse to a unit edge.
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    public void setWeighted() {
+        if (weights != null) {
+            return;
+        }
+
+        weights = new double[sources.length];
+        Arrays.fill(weights, 0, numEdge, 1.0);
+    }
+
+    public double getWeight(int index) {
+        return weights == null ? 1.0 : weights[index];
+    }
+}
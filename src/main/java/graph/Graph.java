@@ -6,9 +6,12 @@ public class Graph {
     private int numVertex;
     private int numEdge;
     private final Map<Integer, Set<Integer>> neighborsSet;
+    // only edges added with a weight are stored, every other edge weighs 1.
+    private final Map<VertexPair, Double> weights;
 
     public Graph() {
         neighborsSet = new HashMap<>();
+        weights = new HashMap<>();
     }
 
     public void addVertex(int num) {
@@ -48,6 +51,29 @@ public class Graph {
         numEdge++;
     }
 
+    // adding an edge that already exists adds weight to it.
+    public void addEdge(int from, int to, double weight) {
+        if (!(weight > 0.0) || Double.isInfinite(weight)) {
+            String msg = String.format("Weight of edge (%d, %d) must be positive and finite, received %s instead.",
+                    from, to, weight);
+            throw new IllegalArgumentException(msg);
+        }
+
+        double old = neighborsSet.get(from) != null && neighborsSet.get(from).contains(to)
+                ? getWeight(from, to) : 0.0;
+
+        addEdge(from, to);
+        weights.put(new VertexPair(from, to), old + weight);
+    }
+
+    public double getWeight(int from, int to) {
+        return weights.getOrDefault(new VertexPair(from, to), 1.0);
+    }
+
+    public boolean isWeighted() {
+        return !weights.isEmpty();
+    }
+
     public int getNumVertex() {
         return numVertex;
     }
@@ -0,0 +1,147 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// maps external ids, which may be sparse or need 64 bits, to dense node indices 0 .. size - 1 in order
+// of first appearance. The table uses open addressing with linear probing and is kept at most half full.
+public class IdMap {
+    private static final int MAX_SIZE = 1 << 29;
+
+    private long[] keys;
+    // dense index stored with each key, -1 for an empty slot.
+    private int[] values;
+    private int mask;
+
+    // external id of each dense index.
+    private long[] ids;
+    private int size;
+
+    public IdMap() {
+        this(16);
+    }
+
+    public IdMap(int expected) {
+        if (expected < 0 || expected > MAX_SIZE) {
+            String msg = String.format("Expected size must be within [0, %d], received %d instead.",
+                    MAX_SIZE, expected);
+            throw new IllegalArgumentException(msg);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(16, 2 * expected - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+        mask = capacity - 1;
+
+        ids = new long[Math.max(16, expected)];
+    }
+
+    public int getOrAdd(long id) {
+        int slot = slotOf(id);
+
+        if (values[slot] >= 0) {
+            return values[slot];
+        }
+
+        if (size == MAX_SIZE) {
+            String msg = String.format("Cannot map more than %d ids.", MAX_SIZE);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.min(2 * size, MAX_SIZE));
+        }
+
+        ids[size] = id;
+        keys[slot] = id;
+        values[slot] = size;
+
+        if (2 * (size + 1) > keys.length) {
+            grow();
+        }
+
+        return size++;
+    }
+
+    // dense index of id, or -1 if it was never added.
+    public int get(long id) {
+        return values[slotOf(id)];
+    }
+
+    public long getId(int node) {
+        if (node < 0 || node >= size) {
+            String msg = String.format("Node index must be within [0, %d), received %d instead.", size, node);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return ids[node];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // external id of every dense index, in index order.
+    public long[] getIds() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    public Map<Integer, Set<Long>> toExternal(Map<Integer, Set<Integer>> commSets) {
+        Map<Integer, Set<Long>> external = new HashMap<>();
+
+        for (Map.Entry<Integer, Set<Integer>> entry : commSets.entrySet()) {
+            Set<Long> members = new HashSet<>();
+
+            for (int node : entry.getValue()) {
+                members.add(getId(node));
+            }
+
+            external.put(entry.getKey(), members);
+        }
+
+        return external;
+    }
+
+    private int slotOf(long id) {
+        int slot = hash(id) & mask;
+
+        while (values[slot] >= 0 && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    // the finalizer of MurmurHash3, consecutive ids end up far apart.
+    private static int hash(long id) {
+        id ^= id >>> 33;
+        id *= 0xff51afd7ed558ccdL;
+        id ^= id >>> 33;
+        id *= 0xc4ceb9fe1a85ec53L;
+        id ^= id >>> 33;
+
+        return (int) id;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[2 * oldKeys.length];
+        values = new int[2 * oldValues.length];
+        Arrays.fill(values, -1);
+        mask = keys.length - 1;
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] >= 0) {
+                int newSlot = slotOf(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+}
@@ -11,6 +11,14 @@ public class VertexPair {
         this.vert2 = vert2;
     }
 
+    public int getVert1() {
+        return vert1;
+    }
+
+    public int getVert2() {
+        return vert2;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,209 @@
+package util;
+
+import graph.CsrGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// binary CSR layout, all little-endian:
+//   int magic, int version, int numVertex, int numEdge, int flags,
+//   int[numVertex + 1] offsets, int[2 * numEdge] targets,
+//   double[numEdge] weights by edge id if bit 0 of flags is set,
+//   int CRC32 of everything before it.
+// Version 1 files have no flags and no weights, and are still read.
+public class CsrGraphFile {
+    public static final int MAGIC = 0x52534347;
+    public static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 20;
+    private static final int V1_HEADER_SIZE = 16;
+    private static final int WEIGHTED = 1;
+    private static final int CHUNK_INTS = 1 << 26;
+
+    public static void convert(Path edgeFile, Path out) throws IOException {
+        write(new CsrGraph(GraphLoader.loadEdges(edgeFile)), out);
+    }
+
+    public static void write(CsrGraph graph, Path out) throws IOException {
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(graph.getNumVertex()).putInt(graph.getNumEdge())
+                    .putInt(graph.isWeighted() ? WEIGHTED : 0);
+            header.flip();
+            writeFully(channel, header, crc);
+
+            ByteBuffer buffer = ByteBuffer.allocate(4 * (1 << 18)).order(ByteOrder.LITTLE_ENDIAN);
+            writeInts(channel, graph.getOffsets(), buffer, crc);
+            writeInts(channel, graph.getTargets(), buffer, crc);
+
+            if (graph.isWeighted()) {
+                writeDoubles(channel, graph.getWeights(), buffer, crc);
+            }
+
+            ByteBuffer footer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            footer.putInt((int) crc.getValue());
+            footer.flip();
+            writeFully(channel, footer, null);
+        }
+    }
+
+    // the file is mapped read-only a chunk at a time and each chunk is copied into the graph's own heap
+    // arrays, which skips a read buffer but leaves every process with a private copy of the graph.
+    public static CsrGraph read(Path in) throws IOException {
+        try (FileChannel channel = FileChannel.open(in, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size < V1_HEADER_SIZE + 4) {
+                String msg = String.format("File %s is too short to hold a graph, %d bytes found.", in, size);
+                throw new IllegalArgumentException(msg);
+            }
+
+            CRC32 crc = new CRC32();
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, V1_HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            crc.update(header.duplicate());
+
+            int magic = header.getInt();
+            int version = header.getInt();
+            int numVertex = header.getInt();
+            int numEdge = header.getInt();
+
+            if (magic != MAGIC || version < 1 || version > VERSION) {
+                String msg = String.format("File %s is not a version 1 to %d CSR graph.", in, VERSION);
+                throw new IllegalArgumentException(msg);
+            }
+
+            int headerSize = V1_HEADER_SIZE;
+            int flags = 0;
+
+            if (version > 1) {
+                ByteBuffer flagBytes = channel.map(FileChannel.MapMode.READ_ONLY, V1_HEADER_SIZE, 4)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                crc.update(flagBytes.duplicate());
+
+                headerSize = HEADER_SIZE;
+                flags = flagBytes.getInt();
+            }
+
+            boolean weighted = (flags & WEIGHTED) != 0;
+            long expected = headerSize + 4L * (numVertex + 1) + 8L * numEdge + (weighted ? 8L * numEdge : 0) + 4;
+            if (numVertex < 0 || numEdge < 0 || 2L * numEdge > Integer.MAX_VALUE - 8 || size != expected) {
+                String msg = String.format("File %s should hold %d bytes for %d vertices and %d edges, %d found.",
+                        in, expected, numVertex, numEdge, size);
+                throw new IllegalArgumentException(msg);
+            }
+
+            int[] offsets = new int[numVertex + 1];
+            int[] targets = new int[2 * numEdge];
+            long position = readInts(channel, headerSize, offsets, crc);
+            position = readInts(channel, position, targets, crc);
+
+            double[] weights = null;
+            if (weighted) {
+                weights = new double[numEdge];
+                position = readDoubles(channel, position, weights, crc);
+            }
+
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, position, 4)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (footer.getInt() != (int) crc.getValue()) {
+                String msg = String.format("Checksum of %s does not match its contents.", in);
+                throw new IllegalArgumentException(msg);
+            }
+
+            return new CsrGraph(offsets, targets, weights);
+        }
+    }
+
+    //<editor-fold desc="Helpers">
+    private static void writeInts(FileChannel channel, int[] values, ByteBuffer buffer, CRC32 crc)
+            throws IOException {
+        int capacity = buffer.capacity() / 4;
+
+        for (int from = 0; from < values.length; from += capacity) {
+            int length = Math.min(capacity, values.length - from);
+
+            buffer.clear();
+            buffer.asIntBuffer().put(values, from, length);
+            buffer.limit(4 * length);
+            writeFully(channel, buffer, crc);
+        }
+    }
+
+    private static void writeDoubles(FileChannel channel, double[] values, ByteBuffer buffer, CRC32 crc)
+            throws IOException {
+        int capacity = buffer.capacity() / 8;
+
+        for (int from = 0; from < values.length; from += capacity) {
+            int length = Math.min(capacity, values.length - from);
+
+            buffer.clear();
+            buffer.asDoubleBuffer().put(values, from, length);
+            buffer.limit(8 * length);
+            writeFully(channel, buffer, crc);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        if (crc != null) {
+            crc.update(buffer.duplicate());
+        }
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // a single mapping cannot exceed 2 GB, so large arrays are mapped in chunks.
+    private static long readInts(FileChannel channel, long position, int[] values, CRC32 crc) throws IOException {
+        for (int from = 0; from < values.length; from += CHUNK_INTS) {
+            int length = Math.min(CHUNK_INTS, values.length - from);
+
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * length);
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            crc.update(chunk.duplicate());
+            chunk.asIntBuffer().get(values, from, length);
+
+            position += 4L * length;
+        }
+
+        return position;
+    }
+
+    private static long readDoubles(FileChannel channel, long position, double[] values, CRC32 crc)
+            throws IOException {
+        for (int from = 0; from < values.length; from += CHUNK_INTS / 2) {
+            int length = Math.min(CHUNK_INTS / 2, values.length - from);
+
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, 8L * length);
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            crc.update(chunk.duplicate());
+            chunk.asDoubleBuffer().get(values, from, length);
+
+            position += 8L * length;
+        }
+
+        return position;
+    }
+    //</editor-fold>
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: CsrGraphFile <input.edge> <output.csr>");
+            return;
+        }
+
+        convert(Paths.get(args[0]), Paths.get(args[1]));
+    }
+}
@@ -1,46 +1,249 @@
 package util;
 
+import graph.EdgeList;
 import graph.Graph;
+import graph.IdMap;
 
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.net.URL;
-import java.util.HashSet;
-import java.util.Scanner;
-import java.util.Set;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class GraphLoader {
-    public static void loadGraph(Graph g, String fileName) throws FileNotFoundException {
-        Set<Integer> seen = new HashSet<>();
-        Scanner sc;
+    private static final int BUFFER_SIZE = 1 << 20;
 
-        URL temp = GraphLoader.class.getClassLoader().getResource(fileName);
+    // fileName is looked up on the classpath, so it also resolves inside a jar.
+    public static void loadGraph(Graph g, String fileName) throws IOException {
+        fillGraph(g, loadEdges(fileName));
+    }
+
+    public static void loadGraph(Graph g, Path path) throws IOException {
+        fillGraph(g, loadEdges(path));
+    }
+
+    public static void loadGraph(Graph g, Path path, IdMap ids) throws IOException {
+        fillGraph(g, loadEdges(path, ids));
+    }
+
+    public static EdgeList loadEdges(String fileName) throws IOException {
+        return loadEdges(fileName, false);
+    }
+
+    public static EdgeList loadEdges(Path path) throws IOException {
+        return loadEdges(path, false);
+    }
+
+    // the list is weighted once a line holds a third column. With countDuplicates it is weighted from the
+    // start, so lines repeating an edge add up to its weight even without a weight column.
+    public static EdgeList loadEdges(String fileName, boolean countDuplicates) throws IOException {
+        return loadEdges(fileName, null, countDuplicates);
+    }
+
+    public static EdgeList loadEdges(Path path, boolean countDuplicates) throws IOException {
+        return loadEdges(path, null, countDuplicates);
+    }
+
+    // ids in the file may be any non-negative 64-bit value. Each is replaced by its dense index in ids,
+    // which grows as new ids are read and translates results back afterwards.
+    public static EdgeList loadEdges(String fileName, IdMap ids) throws IOException {
+        return loadEdges(fileName, ids, false);
+    }
+
+    public static EdgeList loadEdges(Path path, IdMap ids) throws IOException {
+        return loadEdges(path, ids, false);
+    }
+
+    public static EdgeList loadEdges(String fileName, IdMap ids, boolean countDuplicates) throws IOException {
+        InputStream in = GraphLoader.class.getClassLoader().getResourceAsStream(fileName);
 
-        if (temp == null) {
+        if (in == null) {
             throw new FileNotFoundException(fileName);
         }
 
-        File file = new File(temp.getPath());
+        try (ReadableByteChannel channel = Channels.newChannel(in)) {
+            return parse(channel, newEdgeList(16, countDuplicates), ids);
+        }
+    }
+
+    public static EdgeList loadEdges(Path path, IdMap ids, boolean countDuplicates) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // a line holds at least four bytes, which bounds the number of edges.
+            int capacity = (int) Math.min(channel.size() / 4 + 1, Integer.MAX_VALUE - 8);
+
+            return parse(channel, newEdgeList(Math.min(capacity, BUFFER_SIZE), countDuplicates), ids);
+        }
+    }
+
+    private static EdgeList newEdgeList(int capacity, boolean weighted) {
+        EdgeList edges = new EdgeList(capacity);
+
+        if (weighted) {
+            edges.setWeighted();
+        }
+
+        return edges;
+    }
+
+    private static void fillGraph(Graph g, EdgeList edges) {
+        for (int i = 0; i < edges.getNumEdge(); i++) {
+            int v1 = edges.getSource(i);
+            int v2 = edges.getTarget(i);
+
+            g.addVertex(v1);
+            g.addVertex(v2);
+
+            if (edges.isWeighted()) {
+                g.addEdge(v1, v2, edges.getWeight(i));
+            } else {
+                g.addEdge(v1, v2);
+            }
+        }
+    }
+
+    //<editor-fold desc="Parsing">
+    private static EdgeList parse(ReadableByteChannel channel, EdgeList edges, IdMap ids) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        EdgeParser parser = new EdgeParser(edges, ids);
+
+        while (channel.read(buffer) >= 0) {
+            parser.feed(buffer.array(), buffer.position());
+            buffer.clear();
+        }
+
+        parser.finish();
+
+        return edges;
+    }
+
+    // reads one edge per line as two non-negative integers separated by spaces, tabs or commas, with an
+    // optional weight after them. Further columns are ignored, and lines starting with # or % are comments.
+    private static class EdgeParser {
+        private final EdgeList edges;
+        // null when ids are used as node indices as they are.
+        private final IdMap ids;
+        private final long limit;
+
+        private int line = 1;
+        private int numField;
+        private boolean inNumber;
+        private boolean skipLine;
+        private long value;
+        private int v1;
+        private int v2;
+        private final StringBuilder weight = new StringBuilder();
+
+        EdgeParser(EdgeList edges, IdMap ids) {
+            this.edges = edges;
+            this.ids = ids;
+            limit = ids == null ? Integer.MAX_VALUE : Long.MAX_VALUE;
+        }
+
+        void feed(byte[] bytes, int length) {
+            for (int i = 0; i < length; i++) {
+                byte c = bytes[i];
+
+                if (c == '\n') {
+                    endLine();
+                } else if (skipLine) {
+                    continue;
+                } else if (numField == 2) {
+                    feedWeight(c);
+                } else if (c >= '0' && c <= '9') {
+                    int digit = c - '0';
+                    inNumber = true;
+
+                    if (value >= limit / 10 && (value > limit / 10 || digit > limit % 10)) {
+                        String msg = String.format("Node id on line %d exceeds %d.", line, limit);
+                        throw new IllegalArgumentException(msg);
+                    }
 
-        sc = new Scanner(file);
+                    value = 10 * value + digit;
+                } else if (c == ' ' || c == '\t' || c == ',' || c == '\r') {
+                    if (inNumber) {
+                        endNumber();
+                    }
+                } else if ((c == '#' || c == '%') && numField == 0 && !inNumber) {
+                    skipLine = true;
+                } else {
+                    String msg = String.format("Unexpected character '%c' on line %d.", (char) c, line);
+                    throw new IllegalArgumentException(msg);
+                }
+            }
+        }
 
-        while (sc.hasNextInt()) {
-            int v1 = sc.nextInt();
-            int v2 = sc.nextInt();
+        void finish() {
+            endLine();
+        }
 
-            if (!seen.contains(v1)) {
-                g.addVertex(v1);
-                seen.add(v1);
+        private void feedWeight(byte c) {
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                weight.append((char) c);
+                inNumber = true;
+            } else if (c == ' ' || c == '\t' || c == ',' || c == '\r') {
+                if (inNumber) {
+                    endNumber();
+                }
+            } else if ((c == '#' || c == '%') && !inNumber) {
+                skipLine = true;
+            } else {
+                String msg = String.format("Unexpected character '%c' in the weight on line %d.", (char) c, line);
+                throw new IllegalArgumentException(msg);
             }
+        }
 
-            if (!seen.contains(v2)) {
-                g.addVertex(v2);
-                seen.add(v2);
+        private void endNumber() {
+            if (numField == 0) {
+                v1 = toNode(value);
+            } else if (numField == 1) {
+                v2 = toNode(value);
+            } else {
+                edges.add(v1, v2, parseWeight());
+                skipLine = true;
             }
 
-            g.addEdge(v1, v2);
+            numField++;
+            inNumber = false;
+            value = 0;
+        }
+
+        private int toNode(long id) {
+            return ids == null ? (int) id : ids.getOrAdd(id);
+        }
+
+        private double parseWeight() {
+            try {
+                return Double.parseDouble(weight.toString());
+            } catch (NumberFormatException e) {
+                String msg = String.format("Weight '%s' on line %d is not a number.", weight, line);
+                throw new IllegalArgumentException(msg, e);
+            } finally {
+                weight.setLength(0);
+            }
         }
 
-        sc.close();
+        private void endLine() {
+            if (inNumber) {
+                endNumber();
+            }
+
+            if (numField == 1) {
+                String msg = String.format("Line %d holds a single node, expected two.", line);
+                throw new IllegalArgumentException(msg);
+            }
+
+            if (numField == 2) {
+                edges.add(v1, v2);
+            }
+
+            numField = 0;
+            skipLine = false;
+            line++;
+        }
     }
+    //</editor-fold>
 }
@@ -0,0 +1,104 @@
+package girvannewman;
+
+import graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import util.GraphLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointTest {
+    private static Solution partialRun(CsrGraph graph, int numIter) {
+        Solver sv = new Solver();
+        Solution s = Solution.fromCsr(graph);
+
+        for (int iter = 1; iter <= numIter; iter++) {
+            Problem p = new Problem(s.getNumEdge(), iter);
+
+            sv.getEdgesToKill(s, p);
+            sv.killEdges(s, p);
+            sv.calcMod(s, p);
+
+            s.addResultAndSetOpt(p.getMod(), p.getEdgesToKill());
+
+            if (s.getOptIter() == iter) {
+                s.setOptCommSets(p.getCommunitiesSet());
+            }
+        }
+
+        return s;
+    }
+
+    @Test
+    void read_shouldRestoreWrittenState(@TempDir Path dir) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        Solution expected = partialRun(graph, 12);
+        Path path = dir.resolve("run.ckpt");
+
+        new Checkpoint(expected, 5).write(path);
+        Checkpoint cp = Checkpoint.read(path, graph);
+        Solution actual = cp.getSolution();
+
+        assertEquals(5, cp.getThreshold());
+        assertEquals(expected.getObjList(), actual.getObjList());
+        assertEquals(expected.getOptIter(), actual.getOptIter());
+        assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+        assertEquals(expected.getOptCommSets(), actual.getOptCommSets());
+
+        for (int edge = 0; edge < graph.getNumEdge(); edge++) {
+            assertEquals(expected.isEdgeAlive(edge), actual.isEdgeAlive(edge));
+            assertEquals(expected.getIterKilled(edge), actual.getIterKilled(edge));
+        }
+
+        assertFalse(Files.exists(dir.resolve("run.ckpt.tmp")));
+    }
+
+    @Test
+    void write_shouldReplaceOlderCheckpoint(@TempDir Path dir) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        Path path = dir.resolve("run.ckpt");
+
+        new Checkpoint(partialRun(graph, 3), 0).write(path);
+        new Checkpoint(partialRun(graph, 6), 0).write(path);
+
+        assertEquals(7, Checkpoint.read(path, graph).getSolution().getObjList().size());
+    }
+
+    @Test
+    void read_differentGraphShouldThrowIAE(@TempDir Path dir) throws IOException {
+        CsrGraph karate = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        CsrGraph dolphins = new CsrGraph(GraphLoader.loadEdges("data/dolphins.edge"));
+        Path path = dir.resolve("run.ckpt");
+
+        new Checkpoint(partialRun(karate, 2), 0).write(path);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Checkpoint.read(path, dolphins));
+    }
+
+    @Test
+    void read_corruptedCheckpointShouldThrowIAE(@TempDir Path dir) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        Path path = dir.resolve("run.ckpt");
+
+        new Checkpoint(partialRun(graph, 4), 0).write(path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        byte[] flipped = bytes.clone();
+        flipped[60] ^= 1;
+        Files.write(path, flipped);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Checkpoint.read(path, graph));
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Checkpoint.read(path, graph));
+    }
+}
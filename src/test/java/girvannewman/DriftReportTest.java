@@ -0,0 +1,62 @@
+package girvannewman;
+
+import graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+import util.GraphLoader;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static util.Constants.EPSILON;
+
+class DriftReportTest {
+    private static Solution solutionWith(Object... objAndEdges) throws IOException {
+        Solution s = Solution.fromCsr(new CsrGraph(GraphLoader.loadEdges("data/small1.edge")));
+
+        for (int i = 0; i < objAndEdges.length; i += 2) {
+            s.addResultAndSetOpt((Double) objAndEdges[i], new HashSet<>(Arrays.asList((Integer[]) objAndEdges[i + 1])));
+        }
+
+        return s;
+    }
+
+    @Test
+    void compare_shouldMatchIterationsByEdgesRemoved() throws IOException {
+        Solution exact = solutionWith(0.1, new Integer[]{0}, 0.3, new Integer[]{1}, 0.2, new Integer[]{2});
+        Solution batched = solutionWith(0.25, new Integer[]{0, 1}, 0.2, new Integer[]{2});
+
+        DriftReport report = DriftReport.compare(exact, batched);
+
+        assertEquals(2, report.getNumIter());
+        assertEquals(0.05, report.getMaxDrift(), EPSILON);
+        assertEquals(1, report.getMaxDriftIter());
+        assertEquals(0.025, report.getMeanDrift(), EPSILON);
+        assertEquals(0.3, report.getExactOptMod(), EPSILON);
+        assertEquals(0.25, report.getBatchedOptMod(), EPSILON);
+        assertEquals(0.05, report.getOptModLoss(), EPSILON);
+    }
+
+    @Test
+    void compare_sameRunShouldNotDrift() throws IOException {
+        Solution s = new Solver().solve(new CsrGraph(GraphLoader.loadEdges("data/karate.edge")), state -> false);
+        DriftReport report = DriftReport.compare(s, s);
+
+        assertEquals(0.0, report.getMaxDrift());
+        assertEquals(0.0, report.getMeanDrift());
+        assertEquals(0.0, report.getOptModLoss());
+    }
+
+    @Test
+    void compare_differentGraphsShouldThrowIAE() throws IOException {
+        Solution small = solutionWith();
+        Solution karate = Solution.fromCsr(new CsrGraph(GraphLoader.loadEdges("data/karate.edge")));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DriftReport.compare(small, karate));
+
+        assertThrows(NullPointerException.class,
+                () -> DriftReport.compare(small, null));
+    }
+}
@@ -1,13 +1,12 @@
 package girvannewman;
 
-import girvannewman.data.FlowData;
+import girvannewman.data.ComponentData;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -146,75 +145,6 @@ class ProblemTest {
         }
     }
 
-    @ParameterizedTest
-    @MethodSource("smallSet")
-    void getFlowData_shouldReturnCorrectFlowData(int numEdge, int iter) {
-        Problem p = new Problem(numEdge, iter);
-
-        Map<Integer, FlowData> flowsData = p.getFlowsData();
-
-        assertTrue(flowsData.isEmpty());
-
-        flowsData.put(0, new FlowData(0, 1));
-        flowsData.put(1, new FlowData(1, 1));
-        flowsData.put(3, new FlowData(3, 1));
-        flowsData.put(5, new FlowData(5, 1));
-
-        assertEquals(0, p.getFlowData(0).getNode());
-        assertEquals(1, p.getFlowData(1).getNode());
-        assertEquals(3, p.getFlowData(3).getNode());
-        assertEquals(5, p.getFlowData(5).getNode());
-    }
-
-    @ParameterizedTest
-    @MethodSource("smallSet")
-    void getFlowData_nonexistentIndexShouldThrowNSEE(int numEdge, int iter) {
-        Problem p = new Problem(numEdge, iter);
-
-        Map<Integer, FlowData> flowsData = p.getFlowsData();
-
-        assertTrue(flowsData.isEmpty());
-
-        flowsData.put(0, new FlowData(0, 1));
-        flowsData.put(1, new FlowData(1, 1));
-        flowsData.put(3, new FlowData(3, 1));
-        flowsData.put(5, new FlowData(5, 1));
-
-        assertThrows(NoSuchElementException.class,
-                () -> p.getFlowData(-1));
-
-        assertThrows(NoSuchElementException.class,
-                () -> p.getFlowData(2));
-
-        assertThrows(NoSuchElementException.class,
-                () -> p.getFlowData(4));
-
-        assertThrows(NoSuchElementException.class,
-                () -> p.getFlowData(6));
-
-        assertThrows(NoSuchElementException.class,
-                () -> p.getFlowData(100));
-    }
-
-    @ParameterizedTest
-    @MethodSource("smallSet")
-    void resetFlowsData_shouldResetFlowsData(int numEdge, int iter) {
-        Problem p = new Problem(numEdge, iter);
-
-        Map<Integer, FlowData> flowsData = p.getFlowsData();
-
-        assertTrue(flowsData.isEmpty());
-
-        flowsData.put(0, new FlowData(0, 1));
-        flowsData.put(1, new FlowData(1, 1));
-        flowsData.put(3, new FlowData(3, 1));
-        flowsData.put(5, new FlowData(5, 1));
-
-        p.resetFlowsData();
-
-        assertEquals(0, p.getFlowsData().size());
-    }
-
     @ParameterizedTest
     @MethodSource("smallSet")
     void initNewComm_shouldCreateNewCommunityAndReturnIndex(int numEdge, int iter) {
@@ -329,4 +259,36 @@ class ProblemTest {
         p.incMod(624798523);
         assertEquals(624798773.5, p.getMod(), EPSILON);
     }
-}
\ No newline at end of file
+
+    @Test
+    void setCommLabels_shouldReadLabelsOfComponents() {
+        ComponentData comps = new ComponentData(4);
+        int comm0 = comps.initNewComm();
+        int comm1 = comps.initNewComm();
+        comps.putInComm(comm1, 0);
+        comps.putInComm(comm0, 1);
+        comps.putInComm(comm1, 2);
+        comps.putInComm(comm0, 3);
+
+        Problem p = new Problem(3, 1);
+        p.setCommLabels(comps);
+
+        assertEquals(2, p.getNumComm());
+        assertEquals(Stream.of(0, 2).collect(Collectors.toSet()), p.getCommunitiesSet().get(0));
+        assertEquals(Stream.of(1, 3).collect(Collectors.toSet()), p.getCommunitiesSet().get(1));
+    }
+
+    @Test
+    void setCommLabels_splitAfterSettingShouldThrowISE() {
+        ComponentData comps = new ComponentData(2);
+        int comm0 = comps.initNewComm();
+        comps.putInComm(comm0, 0);
+        comps.putInComm(comm0, 1);
+
+        Problem p = new Problem(1, 1);
+        p.setCommLabels(comps);
+        comps.putInComm(comps.initNewComm(), 1);
+
+        assertThrows(IllegalStateException.class, p::getCommunitiesSet);
+    }
+}
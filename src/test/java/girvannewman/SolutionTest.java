@@ -1,16 +1,23 @@
 package girvannewman;
 
 import girvannewman.data.EdgeData;
+import girvannewman.data.RemovalLog;
+import girvannewman.data.UnionFind;
+import graph.CsrGraph;
+import graph.EdgeList;
 import graph.Graph;
 import graph.VertexPair;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import util.GraphLoader;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -25,7 +32,7 @@ class SolutionTest {
         Graph g = new Graph();
         try {
             GraphLoader.loadGraph(g, "data/small1.edge");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
             fail("Should not throw FNFE.");
         }
@@ -201,11 +208,48 @@ class SolutionTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("small1")
+    void killEdge_shouldOnlyKillGivenEdge(Graph g) {
+        Solution s = new Solution(g);
+
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            assertTrue(s.isEdgeAlive(edge));
+            assertEquals(-1, s.getIterKilled(edge));
+        }
+
+        s.killEdge(3, 2);
+        s.killEdge(8, 5);
+
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            boolean killed = edge == 3 || edge == 8;
+
+            assertEquals(!killed, s.isEdgeAlive(edge));
+            assertEquals(!killed, s.getEdgeData(edge).isAlive());
+        }
+
+        assertEquals(2, s.getIterKilled(3));
+        assertEquals(5, s.getIterKilled(8));
+        assertEquals(2, s.getEdgeData(3).getIterKilled());
+    }
+
+    @ParameterizedTest
+    @MethodSource("small1")
+    void killEdge_nonPositiveIterShouldThrowIAE(Graph g) {
+        Solution s = new Solution(g);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> s.killEdge(0, 0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> s.killEdge(0, -1));
+    }
+
     static Stream<Arguments> obj() {
         Graph g = new Graph();
         try {
             GraphLoader.loadGraph(g, "data/small1.edge");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
             fail("Should not throw FNFE.");
         }
@@ -360,4 +404,161 @@ class SolutionTest {
         assertFalse(set2.contains(100));
         assertFalse(set2.contains(-1));
     }
-}
\ No newline at end of file
+
+    static Stream<Arguments> solved() {
+        return Stream.of(
+                Arguments.arguments("data/small1.edge"),
+                Arguments.arguments("data/karate.edge"),
+                Arguments.arguments("data/dolphins.edge")
+        );
+    }
+
+    private static Solution solve(String file) throws IOException {
+        return new Solver().solve(new CsrGraph(GraphLoader.loadEdges(file)), 20);
+    }
+
+    @ParameterizedTest
+    @MethodSource("solved")
+    void getModularityByIter_shouldMatchObjList(String file) throws IOException {
+        Solution s = solve(file);
+        double[] mods = s.getModularityByIter();
+        List<Double> objList = s.getObjList();
+
+        assertEquals(objList.size(), mods.length);
+
+        for (int iter = 1; iter < mods.length; iter++) {
+            assertEquals(objList.get(iter), mods[iter], EPSILON);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("solved")
+    void getModularityByIter_weightedShouldMatchObjList(String file) throws IOException {
+        EdgeList plain = GraphLoader.loadEdges(file);
+        EdgeList edges = new EdgeList();
+        for (int i = 0; i < plain.getNumEdge(); i++) {
+            edges.add(plain.getSource(i), plain.getTarget(i), 0.5 + i % 3);
+        }
+
+        Solution s = new Solver().solve(new CsrGraph(edges), 20);
+        double[] mods = s.getModularityByIter();
+
+        for (int iter = 1; iter < mods.length; iter++) {
+            assertEquals(s.getObjList().get(iter), mods[iter], EPSILON);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("solved")
+    void getCommunitiesAt_optIterShouldMatchOptCommSets(String file) throws IOException {
+        Solution s = solve(file);
+
+        assertEquals(s.getOptCommSets(), s.getCommunitiesAt(s.getOptIter()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("solved")
+    void getCommunitiesAt_shouldMatchLiveEdges(String file) throws IOException {
+        Solution s = solve(file);
+        int numIter = s.getRemovalLog().getNumIter();
+
+        for (int iter : new int[]{0, numIter / 3, numIter / 2, numIter}) {
+            Map<Integer, Set<Integer>> commSets = s.getCommunitiesAt(iter);
+
+            Map<Integer, Integer> commOf = new HashMap<>();
+            for (int comm : commSets.keySet()) {
+                for (int node : commSets.get(comm)) {
+                    commOf.put(node, comm);
+                }
+            }
+
+            assertEquals(s.getNumVert(), commOf.size());
+
+            // every edge alive after iter joins its ends, and each community is connected by such edges.
+            UnionFind uf = new UnionFind(s.getNumVert());
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                int killed = s.getIterKilled(edge);
+                VertexPair ends = s.getEdgeData(edge).getEndpoints();
+
+                if (killed < 0 || killed > iter) {
+                    assertEquals(commOf.get(ends.getVert1()), commOf.get(ends.getVert2()));
+                    uf.union(ends.getVert1(), ends.getVert2());
+                }
+            }
+
+            assertEquals(uf.getNumSets(), commSets.size());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("solved")
+    void getCommunitiesWithK_shouldMatchFirstLevelWithK(String file) throws IOException {
+        Solution s = solve(file);
+        int numIter = s.getRemovalLog().getNumIter();
+
+        Set<Integer> seen = new HashSet<>();
+        for (int iter = numIter; iter >= 0; iter--) {
+            Map<Integer, Set<Integer>> commSets = s.getCommunitiesAt(iter);
+
+            if (seen.add(commSets.size())) {
+                assertEquals(commSets, s.getCommunitiesWithK(commSets.size()));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("solved")
+    void fromLog_loadedLogShouldGiveSameLevels(String file, @TempDir Path dir) throws IOException {
+        Solution s = solve(file);
+
+        Path path = dir.resolve("removal.log");
+        s.getRemovalLog().export(path);
+        Solution loaded = Solution.fromLog(s.getGraph(), RemovalLog.load(path));
+
+        assertEquals(s.getOptIter(), loaded.getOptIter());
+        assertEquals(s.getNumAliveEdges(), loaded.getNumAliveEdges());
+        assertEquals(s.getObjList(), loaded.getObjList());
+        assertArrayEquals(s.getModularityByIter(), loaded.getModularityByIter(), EPSILON);
+
+        for (int iter = 0; iter <= s.getRemovalLog().getNumIter(); iter++) {
+            Map<Integer, Set<Integer>> commSets = s.getCommunitiesAt(iter);
+
+            assertEquals(commSets, loaded.getCommunitiesAt(iter));
+            assertEquals(s.getCommunitiesWithK(commSets.size()), loaded.getCommunitiesWithK(commSets.size()));
+        }
+    }
+
+    @Test
+    void fromLog_foreignLogShouldThrowIAE() {
+        EdgeList edges = new EdgeList();
+        edges.add(0, 1);
+        edges.add(1, 2);
+
+        RemovalLog log = new RemovalLog();
+        log.add(0.0, new int[]{1});
+        log.add(0.0, new int[]{1});
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Solution.fromLog(new CsrGraph(edges), log));
+
+        assertThrows(NullPointerException.class,
+                () -> Solution.fromLog(new CsrGraph(edges), null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("small1")
+    void getCommunitiesAt_invalidIterShouldThrowIAE(Graph g) {
+        Solution s = new Solution(g);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> s.getCommunitiesAt(1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> s.getCommunitiesAt(-1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> s.getCommunitiesWithK(2));
+
+        assertEquals(1, s.getCommunitiesWithK(1).size());
+    }
+}
@@ -1,15 +1,29 @@
 package girvannewman;
 
+import girvannewman.data.SourceDags;
+import graph.CsrGraph;
+import graph.EdgeList;
 import graph.Graph;
+import graph.IdMap;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import util.GraphLoader;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -21,7 +35,7 @@ class SolverTest {
         Graph g = new Graph();
         try {
             GraphLoader.loadGraph(g, "data/small1.edge");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
             fail("Should not throw FNFE.");
         }
@@ -116,8 +130,1515 @@ class SolverTest {
         assertEquals(mod, p.getMod(), EPSILON);
     }
 
+    static Stream<Arguments> datasets() {
+        return Stream.of(
+                Arguments.arguments("data/small1.edge"),
+                Arguments.arguments("data/karate.edge"),
+                Arguments.arguments("data/dolphins.edge")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getEdgesToKill_parallelShouldMatchSerial(String file) throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        Solution s = new Solution(g);
+        Problem serial = new Problem(s.getNumEdge(), 1);
+        Problem parallel = new Problem(s.getNumEdge(), 1);
+
+        new Solver().getEdgesToKill(s, serial);
+        try (Solver sv = new Solver(4)) {
+            sv.getEdgesToKill(s, parallel);
+        }
+
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            assertEquals(serial.getBetw(edge), parallel.getBetw(edge), EPSILON);
+        }
+
+        assertEquals(serial.getEdgesToKill(), parallel.getEdgesToKill());
+    }
+
+    @Test
+    void getEdgesToKill_shouldGiveCorrectBetweenness() {
+        Graph g = new Graph();
+        for (int node = 0; node < 6; node++) {
+            g.addVertex(node);
+        }
+
+        // two sources feeding a hub, and a diamond below it with two shortest paths to node 5.
+        g.addEdge(0, 2);
+        g.addEdge(1, 2);
+        g.addEdge(2, 3);
+        g.addEdge(2, 4);
+        g.addEdge(3, 5);
+        g.addEdge(4, 5);
+
+        Solution s = new Solution(g);
+        Problem p = new Problem(s.getNumEdge(), 1);
+
+        new Solver().getEdgesToKill(s, p);
+
+        assertEquals(10.0, p.getBetw(s.getEdge(0, 2)), EPSILON);
+        assertEquals(10.0, p.getBetw(s.getEdge(1, 2)), EPSILON);
+        assertEquals(10.0, p.getBetw(s.getEdge(2, 3)), EPSILON);
+        assertEquals(10.0, p.getBetw(s.getEdge(2, 4)), EPSILON);
+        assertEquals(6.0, p.getBetw(s.getEdge(3, 5)), EPSILON);
+        assertEquals(6.0, p.getBetw(s.getEdge(4, 5)), EPSILON);
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void solve_sharedPoolShouldMatchOwnPool(String file) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges(file));
+        ForkJoinPool shared = new ForkJoinPool(3);
+
+        try (Solver own = new Solver(3)) {
+            Solution expected = own.solve(graph, state -> false);
+
+            // the pool is left running for the next solver sharing it.
+            for (int run = 0; run < 2; run++) {
+                try (Solver sv = new Solver(shared)) {
+                    assertEquals(3, sv.getNumThreads());
+                    assertEquals(expected.getKilledEdgeList(), sv.solve(graph, state -> false).getKilledEdgeList());
+                }
+
+                assertFalse(shared.isShutdown());
+            }
+        } finally {
+            shared.shutdown();
+        }
+    }
+
+    // every task of a parallel run fills its own partial betweenness, which the workers allocate.
+    @Test
+    void solve_allocatedBytesShouldCountPoolWorkers() {
+        CsrGraph graph = chordedRings(2000, 1);
+        long[] allocated = new long[1];
+
+        try (Solver sv = new Solver(4)) {
+            sv.addListener(event -> allocated[0] = event.getAllocatedBytes());
+            sv.solve(graph, StopPolicy.maxIterations(1));
+        }
+
+        if (allocated[0] >= 0) {
+            long numTasks = graph.getNumVertex() / 64;
+            assertTrue(allocated[0] >= numTasks * 8L * graph.getNumEdge());
+        }
+    }
+
+    @Test
+    void close_shouldStopSolverFromRunning() throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, "data/karate.edge");
+
+        Solver sv = new Solver(2);
+        sv.solve(g, 3);
+        sv.close();
+        sv.close();
+
+        assertTrue(sv.isClosed());
+        assertThrows(IllegalStateException.class,
+                () -> sv.solve(g, 3));
+
+        assertThrows(NullPointerException.class,
+                () -> new Solver((ForkJoinPool) null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getEdgesToKill_cachedBetweennessShouldMatchRecalculation(String file) throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        Solver sv = new Solver();
+        Solution s = new Solution(g);
+        Problem p = null;
+
+        for (int iter = 1; iter <= 8; iter++) {
+            p = new Problem(s.getNumEdge(), iter);
+            sv.getEdgesToKill(s, p);
+            sv.killEdges(s, p);
+        }
+
+        p = new Problem(s.getNumEdge(), 9);
+        sv.getEdgesToKill(s, p);
+
+        Solution fresh = new Solution(g);
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            if (!s.isEdgeAlive(edge)) {
+                fresh.killEdge(edge, s.getIterKilled(edge));
+            }
+        }
+
+        Problem expected = new Problem(fresh.getNumEdge(), 9);
+        sv.getEdgesToKill(fresh, expected);
+
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            assertEquals(expected.getBetw(edge), p.getBetw(edge), EPSILON);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void calcMod_incrementalCommunitiesShouldMatchRelabelling(String file) throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        Solver sv = new Solver();
+        Solution s = new Solution(g);
+
+        for (int iter = 1; iter <= 3 * s.getNumEdge() / 4; iter++) {
+            Problem p = new Problem(s.getNumEdge(), iter);
+            sv.getEdgesToKill(s, p);
+            sv.killEdges(s, p);
+            sv.calcMod(s, p);
+
+            Solution fresh = new Solution(g);
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                if (!s.isEdgeAlive(edge)) {
+                    fresh.killEdge(edge, s.getIterKilled(edge));
+                }
+            }
+
+            Problem expected = new Problem(fresh.getNumEdge(), iter);
+            sv.calcMod(fresh, expected);
+
+            assertEquals(expected.getCommunitiesSet(), p.getCommunitiesSet());
+            assertEquals(expected.getNumComm(), p.getNumComm());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void calcMod_shouldMatchPairwiseSum(String file) throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        Solver sv = new Solver();
+        Solution s = new Solution(g);
+        double m = s.getNumEdge();
+
+        for (int iter = 1; iter <= s.getNumEdge() / 2; iter++) {
+            Problem p = new Problem(s.getNumEdge(), iter);
+            sv.getEdgesToKill(s, p);
+            sv.killEdges(s, p);
+            sv.calcMod(s, p);
+
+            double expected = 0.0;
+            for (Set<Integer> comm : p.getCommunitiesSet().values()) {
+                for (int node1 : comm) {
+                    for (int node2 : comm) {
+                        if (node1 != node2) {
+                            double val = s.areNeighbors(node1, node2) ? 1.0 : 0.0;
+                            val -= s.getNumNeighborsOf(node1) * s.getNumNeighborsOf(node2) / (2.0 * m);
+                            expected += val / (2.0 * m);
+                        }
+                    }
+                }
+            }
+
+            assertEquals(expected, p.getMod(), EPSILON);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getEdgesToKill_fullSampleShouldMatchExact(String file) throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        Solution s = new Solution(g);
+        Problem exact = new Problem(s.getNumEdge(), 1);
+        Problem sampled = new Problem(s.getNumEdge(), 1);
+
+        try (Solver sampler = new Solver(2)) {
+            sampler.setSampleSize(s.getNumVert() + 10, 7);
+
+            new Solver().getEdgesToKill(s, exact);
+            sampler.getEdgesToKill(s, sampled);
+
+            assertEquals(s.getNumVert(), sampler.getLastNumSampled());
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                assertEquals(exact.getBetw(edge), sampled.getBetw(edge), EPSILON);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getEdgesToKill_sameSeedShouldGiveSameSample(String file) throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        Solution s = new Solution(g);
+        Problem p1 = new Problem(s.getNumEdge(), 1);
+        Problem p2 = new Problem(s.getNumEdge(), 1);
+
+        Solver sampler1 = new Solver();
+        sampler1.setSampleSize(s.getNumVert() / 3, 11);
+        try (Solver sampler2 = new Solver(3)) {
+            sampler2.setSampleSize(s.getNumVert() / 3, 11);
+
+            sampler1.getEdgesToKill(s, p1);
+            sampler2.getEdgesToKill(s, p2);
+
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                assertEquals(p1.getBetw(edge), p2.getBetw(edge), EPSILON);
+            }
+        }
+    }
+
+    static Stream<Arguments> switchToExact() {
+        return Stream.of(
+                Arguments.arguments("data/karate.edge", false),
+                Arguments.arguments("data/dolphins.edge", false),
+                Arguments.arguments("data/karate.edge", true),
+                Arguments.arguments("data/dolphins.edge", true)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("switchToExact")
+    void getEdgesToKill_exactAfterSamplingShouldNotReadSampledBetw(String file, boolean incremental)
+            throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges(file));
+        Solution s = Solution.fromCsr(graph);
+
+        Solver sv = new Solver();
+        if (incremental) {
+            sv.setIncrementalBetweenness(1L << 30);
+        }
+
+        // two exact calculations leave the cache up to date, then sampled iterations kill edges all over the graph.
+        for (int iter = 1; iter <= 6; iter++) {
+            Problem p = new Problem(s.getNumEdge(), iter);
+            sv.getEdgesToKill(s, p);
+
+            if (iter == 2) {
+                sv.setSampleSize(5, 13);
+            }
+
+            sv.killEdges(s, p);
+            s.addResultAndSetOpt(0.0, p.getEdgesToKill());
+        }
+
+        sv.setExact();
+        Problem actual = new Problem(s.getNumEdge(), 7);
+        sv.getEdgesToKill(s, actual);
+
+        Problem expected = new Problem(s.getNumEdge(), 7);
+        new Solver().getEdgesToKill(Solution.fromLog(graph, s.getRemovalLog()), expected);
+
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            assertEquals(expected.getBetw(edge), actual.getBetw(edge), EPSILON);
+        }
+
+        assertEquals(expected.getEdgesToKill(), actual.getEdgesToKill());
+    }
+
+    static Stream<Arguments> samplingAgreement() {
+        return Stream.of(
+                Arguments.arguments("data/karate.edge", false, 0.5, 0.65),
+                Arguments.arguments("data/dolphins.edge", false, 0.5, 0.5),
+                Arguments.arguments("data/karate.edge", true, 0.95, 0.95),
+                Arguments.arguments("data/dolphins.edge", true, 0.95, 0.95)
+        );
+    }
+
+    // follows the exact run and counts the iterations where a sampled solver would kill one of the
+    // same edges.
+    @ParameterizedTest
+    @MethodSource("samplingAgreement")
+    void getEdgesToKill_samplingShouldMostlyAgreeWithExact(String file, boolean adaptive,
+                                                           double param, double minAgreement)
+            throws IOException {
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        Solution s = new Solution(g);
+        Solver exact = new Solver();
+        Solver sampler = new Solver();
+
+        if (adaptive) {
+            sampler.setAdaptiveSampling(param, 4, 42);
+        } else {
+            sampler.setSampleSize((int) Math.ceil(param * s.getNumVert()), 42);
+        }
+
+        int agreed = 0;
+        int total = 0;
+
+        for (int iter = 1; iter <= s.getNumEdge(); iter++) {
+            Problem pExact = new Problem(s.getNumEdge(), iter);
+            exact.getEdgesToKill(s, pExact);
+
+            if (pExact.getEdgesToKill().isEmpty()) {
+                break;
+            }
+
+            Problem pSampled = new Problem(s.getNumEdge(), iter);
+            sampler.getEdgesToKill(s, pSampled);
+
+            Set<Integer> common = new HashSet<>(pSampled.getEdgesToKill());
+            common.retainAll(pExact.getEdgesToKill());
+
+            if (!common.isEmpty()) {
+                agreed++;
+            }
+
+            total++;
+            exact.killEdges(s, pExact);
+        }
+
+        double agreement = (double) agreed / total;
+
+        assertTrue(agreement >= minAgreement,
+                String.format("Removed edge agreed with exact in %d of %d iterations.", agreed, total));
+    }
+
+    @Test
+    void setSampling_invalidParametersShouldThrowIAE() {
+        Solver sv = new Solver();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setSampleSize(0, 1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setAdaptiveSampling(0.0, 4, 1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setAdaptiveSampling(1.0, 4, 1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setAdaptiveSampling(0.9, 0, 1));
+    }
+
+    @Test
+    void ctor_nonPositiveThreadsShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Solver(0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Solver(-1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void resume_shouldMatchUninterruptedRun(String file, @TempDir Path dir) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges(file));
+        Solution expected = new Solver().solve(graph, 3);
+
+        // stop a run after a few iterations by replaying them with the same steps as solve.
+        Solver sv = new Solver();
+        Solution partial = Solution.fromCsr(graph);
+        double optObj = Double.NEGATIVE_INFINITY;
+
+        for (int iter = 1; iter <= 4; iter++) {
+            Problem p = new Problem(partial.getNumEdge(), iter);
+
+            sv.getEdgesToKill(partial, p);
+            sv.killEdges(partial, p);
+            sv.calcMod(partial, p);
+
+            partial.addResultAndSetOpt(p.getMod(), p.getEdgesToKill());
+            if (optObj <= p.getMod()) {
+                optObj = p.getMod();
+                partial.setOptCommSets(p.getCommunitiesSet());
+            }
+        }
+
+        Path path = dir.resolve("run.ckpt");
+        new Checkpoint(partial, 3).write(path);
+
+        Solution actual = new Solver().resume(path, graph);
+
+        assertEquals(expected.getObjList(), actual.getObjList());
+        assertEquals(expected.getOptIter(), actual.getOptIter());
+        assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+        assertEquals(expected.getOptCommSets(), actual.getOptCommSets());
+    }
+
+    @Test
+    void solve_checkpointShouldHoldFinishedRun(@TempDir Path dir) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        Path path = dir.resolve("run.ckpt");
+
+        Solver sv = new Solver();
+        sv.setCheckpointByIterations(path, 4);
+        Solution expected = sv.solve(graph, 3);
+
+        Solution resumed = new Solver().resume(path, graph);
+
+        assertEquals(expected.getObjList(), resumed.getObjList());
+        assertEquals(expected.getKilledEdgeList(), resumed.getKilledEdgeList());
+        assertEquals(expected.getOptCommSets(), resumed.getOptCommSets());
+
+        sv.setCheckpointByTime(path, 1);
+        sv.solve(graph, 3);
+        assertEquals(expected.getObjList(), new Solver().resume(path, graph).getObjList());
+    }
+
+    @Test
+    void setCheckpoint_invalidIntervalShouldThrowIAE(@TempDir Path dir) {
+        Solver sv = new Solver();
+        Path path = dir.resolve("run.ckpt");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setCheckpointByIterations(path, 0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setCheckpointByTime(path, -1));
+
+        assertThrows(NullPointerException.class,
+                () -> sv.setCheckpointByIterations(null, 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void solve_listenerShouldSeeEveryIteration(String file) throws IOException {
+        List<IterationEvent> events = new ArrayList<>();
+        int[] calls = new int[2];
+
+        Solver sv = new Solver();
+        sv.addListener(new SolverListener() {
+            @Override
+            public void onStart(Solution s) {
+                calls[0]++;
+            }
+
+            @Override
+            public void onIteration(IterationEvent event) {
+                events.add(event);
+            }
+
+            @Override
+            public void onFinish(Solution s) {
+                calls[1]++;
+            }
+        });
+
+        Solution s = sv.solve(new CsrGraph(GraphLoader.loadEdges(file)), 3);
+
+        assertEquals(1, calls[0]);
+        assertEquals(1, calls[1]);
+        assertEquals(s.getRemovalLog().getNumIter(), events.size());
+        assertEquals(s.getNumVert(), events.get(0).getNumBfs());
+
+        double optMod = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < events.size(); i++) {
+            IterationEvent event = events.get(i);
+            optMod = Math.max(optMod, event.getMod());
+
+            assertEquals(i + 1, event.getIter());
+            assertEquals(s.getObjList().get(i + 1), event.getMod(), EPSILON);
+            assertEquals(optMod, event.getOptMod(), EPSILON);
+            assertEquals(s.getKilledEdgeList().get(i + 1), event.getEdgesRemoved());
+            assertEquals(s.getCommunitiesAt(i + 1).size(), event.getNumComm());
+            assertTrue(event.getBetwNanos() >= 0 && event.getModNanos() >= 0);
+        }
+    }
+
+    @Test
+    void addListener_nullShouldThrowNPE() {
+        assertThrows(NullPointerException.class,
+                () -> new Solver().addListener(null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("small1")
+    void solve_shouldGiveCorrectResult(Graph g, Set<Integer> edgesToKill,
+                                       Map<Integer, Set<Integer>> optCommSets, double mod) {
+        Solution s = new Solver().solve(g, 3);
+
+        assertEquals(1, s.getOptIter());
+        assertEquals(mod, s.getObjList().get(s.getOptIter()), EPSILON);
+        assertEquals(optCommSets, s.getOptCommSets());
+        assertEquals(edgesToKill, s.getKilledEdgeList().get(1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void solve_policiesShouldStopWhereExpected(String file) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges(file));
+        Solver sv = new Solver();
+
+        Solution s = sv.solve(graph, StopPolicy.maxIterations(3));
+        assertEquals(3, s.getRemovalLog().getNumIter());
+
+        s = sv.solve(graph, StopPolicy.targetCommunities(4));
+        int numIter = s.getRemovalLog().getNumIter();
+        assertTrue(s.getCommunitiesAt(numIter).size() >= 4);
+        assertTrue(s.getCommunitiesAt(numIter - 1).size() < 4);
+
+        s = sv.solve(graph, StopPolicy.targetCommunities(4).or(StopPolicy.maxIterations(2)));
+        assertTrue(s.getRemovalLog().getNumIter() <= 2);
+
+        s = sv.solve(graph, StopPolicy.targetCommunities(4).and(StopPolicy.maxIterations(2)));
+        assertTrue(s.getRemovalLog().getNumIter() >= numIter);
+
+        s = sv.solve(graph, StopPolicy.minComponentSize(2));
+        numIter = s.getRemovalLog().getNumIter();
+        assertTrue(s.getCommunitiesAt(numIter).values().stream().anyMatch(c -> c.size() == 2));
+        assertFalse(s.getCommunitiesAt(numIter - 1).values().stream().anyMatch(c -> c.size() == 2));
+    }
+
+    @Test
+    void solve_minComponentSizeShouldIgnoreIsolatedVertices() throws IOException {
+        // karate with its nodes moved up by one, so node 0 is isolated.
+        EdgeList plain = GraphLoader.loadEdges("data/karate.edge");
+        EdgeList edges = new EdgeList();
+        for (int i = 0; i < plain.getNumEdge(); i++) {
+            edges.add(plain.getSource(i) + 1, plain.getTarget(i) + 1);
+        }
+
+        Solution s = new Solver().solve(new CsrGraph(edges), StopPolicy.minComponentSize(2));
+        int numIter = s.getRemovalLog().getNumIter();
+
+        assertTrue(numIter > 0);
+        assertTrue(s.getCommunitiesAt(numIter).values().stream().anyMatch(c -> c.size() == 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void solve_shouldStopOnceNoEdgesAreLeft(String file) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges(file));
+        Solution s = new Solver().solve(graph, state -> false);
+
+        assertEquals(0, s.getNumAliveEdges());
+        assertEquals(graph.getNumEdge(), s.getRemovalLog().getNumRemoved());
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void solve_treesOrCliquesShouldStopAtTreesOrCliques(String file) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges(file));
+        Solution s = new Solver().solve(graph, StopPolicy.treesOrCliques());
+
+        Map<Integer, Set<Integer>> commSets = s.getCommunitiesAt(s.getRemovalLog().getNumIter());
+        for (Set<Integer> comm : commSets.values()) {
+            long numLive = 0;
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                if (s.isEdgeAlive(edge) && comm.contains(graph.getEdgeSource(edge))) {
+                    numLive++;
+                }
+            }
+
+            long size = comm.size();
+            assertTrue(numLive == size - 1 || numLive == size * (size - 1) / 2);
+        }
+    }
+
+    @Test
+    void resume_customPolicyCheckpointNeedsPolicy(@TempDir Path dir) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        Path path = dir.resolve("run.ckpt");
+
+        Solver sv = new Solver();
+        sv.setCheckpointByIterations(path, 1);
+        Solution expected = sv.solve(graph, StopPolicy.maxIterations(6));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Solver().resume(path, graph));
+
+        Solution resumed = new Solver().resume(path, graph, StopPolicy.maxIterations(8));
+        assertEquals(8, resumed.getRemovalLog().getNumIter());
+        assertEquals(expected.getObjList(), resumed.getObjList().subList(0, 7));
+    }
+
+    @Test
+    void solve_cancelShouldReturnLastCompletedIteration() throws Exception {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/facebook_ucsd_1000.edge"));
+        Solver sv = new Solver();
+
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            sv.cancel();
+        });
+
+        long start = System.nanoTime();
+        canceller.start();
+        Solution s = sv.solve(graph, state -> false);
+        canceller.join();
+
+        assertTrue(s.isTruncated());
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertTrue(s.getNumAliveEdges() > 0);
+        assertEquals(graph.getNumEdge() - s.getNumAliveEdges(), s.getRemovalLog().getNumRemoved());
+        assertEquals(s.getRemovalLog().getNumIter() + 1, s.getObjList().size());
+
+        // the cancel request ends with the run it stopped.
+        assertFalse(sv.solve(graph, 3).isTruncated());
+    }
+
+    @Test
+    void solve_failedRunShouldNotAffectNextRun() throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        Solver sv = new Solver();
+
+        SolverListener failing = event -> {
+            sv.cancel();
+            throw new IllegalStateException("Listener failed.");
+        };
+
+        sv.addListener(failing);
+        assertThrows(IllegalStateException.class,
+                () -> sv.solve(graph, 3));
+
+        sv.removeListener(failing);
+        assertFalse(sv.solve(graph, 3).isTruncated());
+    }
+
+    @Test
+    void solve_timeLimitShouldTruncateRun() throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/facebook_ucsd_1000.edge"));
+        Solver sv = new Solver();
+        sv.setTimeLimit(100);
+
+        long start = System.nanoTime();
+        Solution s = sv.solve(graph, state -> false);
+
+        assertTrue(s.isTruncated());
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        assertEquals(s.getRemovalLog().getNumIter() + 1, s.getObjList().size());
+
+        int optIter = s.getOptIter();
+        for (int iter = 1; iter < s.getObjList().size(); iter++) {
+            assertTrue(s.getObjList().get(iter) <= s.getObjList().get(optIter) + EPSILON);
+        }
+
+        sv.clearBudgets();
+        assertFalse(sv.solve(new CsrGraph(GraphLoader.loadEdges("data/karate.edge")), 3).isTruncated());
+    }
+
+    @Test
+    void solve_interruptShouldTruncateRun() throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+
+        Thread.currentThread().interrupt();
+        Solution s = new Solver().solve(graph, 3);
+        assertTrue(Thread.interrupted());
+
+        assertTrue(s.isTruncated());
+        assertEquals(0, s.getRemovalLog().getNumIter());
+    }
+
+    @Test
+    void solve_memoryBudgetShouldTruncateRun() throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        Solver sv = new Solver();
+        sv.setMemoryBudget(1);
+
+        assertTrue(sv.solve(graph, 3).isTruncated());
+    }
+
+    @Test
+    void setBudgets_nonPositiveShouldThrowIAE() {
+        Solver sv = new Solver();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setTimeLimit(0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setMemoryBudget(-1));
+    }
+
+    // weights 1 to 4 picked from the endpoints, times scale.
+    private static CsrGraph weighted(String file, double scale) throws IOException {
+        EdgeList plain = GraphLoader.loadEdges(file);
+        EdgeList edges = new EdgeList();
+
+        for (int i = 0; i < plain.getNumEdge(); i++) {
+            int node1 = plain.getSource(i);
+            int node2 = plain.getTarget(i);
+            edges.add(node1, node2, scale * (1 + (node1 + node2) % 4));
+        }
+
+        return new CsrGraph(edges);
+    }
+
+    // sums sigma(s, a) * sigma(b, t) / sigma(s, t) over ordered pairs whose shortest paths use the edge,
+    // with lengths from Floyd-Warshall. Exact comparisons are fine for integer weights.
+    private static double[] allPairsBetweenness(CsrGraph g) {
+        int n = g.getNumVertex();
+        double[][] dist = new double[n][n];
+        for (double[] row : dist) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+
+        for (int node = 0; node < n; node++) {
+            dist[node][node] = 0.0;
+        }
+
+        for (int edge = 0; edge < g.getNumEdge(); edge++) {
+            int node1 = g.getEdgeSource(edge);
+            int node2 = g.getEdgeTarget(edge);
+            dist[node1][node2] = g.getWeight(edge);
+            dist[node2][node1] = g.getWeight(edge);
+        }
+
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    dist[i][j] = Math.min(dist[i][j], dist[i][k] + dist[k][j]);
+                }
+            }
+        }
+
+        double[][] sigma = new double[n][n];
+        for (int src = 0; src < n; src++) {
+            double[] d = dist[src];
+            Integer[] order = new Integer[n];
+            for (int node = 0; node < n; node++) {
+                order[node] = node;
+            }
+
+            Arrays.sort(order, (a, b) -> Double.compare(d[a], d[b]));
+            sigma[src][src] = 1.0;
+
+            for (int t : order) {
+                for (int edge = 0; t != src && edge < g.getNumEdge(); edge++) {
+                    int node1 = g.getEdgeSource(edge);
+                    int node2 = g.getEdgeTarget(edge);
+                    int up = node1 == t ? node2 : node2 == t ? node1 : -1;
+
+                    if (up >= 0 && d[up] + g.getWeight(edge) == d[t]) {
+                        sigma[src][t] += sigma[src][up];
+                    }
+                }
+            }
+        }
+
+        double[] betw = new double[g.getNumEdge()];
+        for (int edge = 0; edge < g.getNumEdge(); edge++) {
+            int[] ends = {g.getEdgeSource(edge), g.getEdgeTarget(edge)};
+
+            for (int src = 0; src < n; src++) {
+                for (int t = 0; t < n; t++) {
+                    for (int side = 0; side < 2 && src != t && sigma[src][t] > 0; side++) {
+                        int a = ends[side];
+                        int b = ends[1 - side];
+
+                        if (dist[src][a] + g.getWeight(edge) + dist[b][t] == dist[src][t]) {
+                            betw[edge] += sigma[src][a] * sigma[b][t] / sigma[src][t];
+                        }
+                    }
+                }
+            }
+        }
+
+        return betw;
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getEdgesToKill_weightedShouldMatchAllPairs(String file) throws IOException {
+        CsrGraph g = weighted(file, 1.0);
+        Solution s = Solution.fromCsr(g);
+        Problem p = new Problem(s.getNumEdge(), 1);
+
+        new Solver().getEdgesToKill(s, p);
+
+        double[] expected = allPairsBetweenness(g);
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            assertEquals(expected[edge], p.getBetw(edge), EPSILON);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getEdgesToKill_fractionalWeightsShouldMatchIntegerWeights(String file) throws IOException {
+        CsrGraph integer = weighted(file, 1.0);
+        CsrGraph fractional = weighted(file, 1.0 / 3);
+        assertTrue(integer.hasIntegerWeights());
+        assertFalse(fractional.hasIntegerWeights());
+
+        try (Solver sv = new Solver(2)) {
+            Solution s1 = Solution.fromCsr(integer);
+            Solution s2 = Solution.fromCsr(fractional);
+
+            for (int iter = 1; iter <= 5; iter++) {
+                Problem p1 = new Problem(s1.getNumEdge(), iter);
+                Problem p2 = new Problem(s2.getNumEdge(), iter);
+                sv.getEdgesToKill(s1, p1);
+                sv.getEdgesToKill(s2, p2);
+
+                for (int edge = 0; edge < s1.getNumEdge(); edge++) {
+                    assertEquals(p1.getBetw(edge), p2.getBetw(edge), EPSILON);
+                }
+
+                assertEquals(p1.getEdgesToKill(), p2.getEdgesToKill());
+                sv.killEdges(s1, p1);
+                sv.killEdges(s2, p2);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void calcMod_weightedShouldMatchPairwiseSum(String file) throws IOException {
+        Solver sv = new Solver();
+        Solution s = Solution.fromCsr(weighted(file, 0.5));
+        CsrGraph g = s.getGraph();
+        double m = g.getTotalWeight();
+
+        for (int iter = 1; iter <= s.getNumEdge() / 2; iter++) {
+            Problem p = new Problem(s.getNumEdge(), iter);
+            sv.getEdgesToKill(s, p);
+            sv.killEdges(s, p);
+            sv.calcMod(s, p);
+
+            double expected = 0.0;
+            for (Set<Integer> comm : p.getCommunitiesSet().values()) {
+                for (int node1 : comm) {
+                    for (int node2 : comm) {
+                        if (node1 != node2) {
+                            int edge = g.findEdge(node1, node2);
+                            double val = edge >= 0 ? g.getWeight(edge) : 0.0;
+                            val -= g.getStrength(node1) * g.getStrength(node2) / (2.0 * m);
+                            expected += val / (2.0 * m);
+                        }
+                    }
+                }
+            }
+
+            assertEquals(expected, p.getMod(), EPSILON);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void solve_uniformWeightsShouldMatchUnweighted(String file) throws IOException {
+        CsrGraph plain = new CsrGraph(GraphLoader.loadEdges(file));
+        double[] weights = new double[plain.getNumEdge()];
+        Arrays.fill(weights, 2.5);
+        CsrGraph uniform = new CsrGraph(plain.getOffsets().clone(), plain.getTargets().clone(), weights);
+
+        Solution expected = new Solver().solve(plain, 5);
+        Solution actual = new Solver().solve(uniform, 5);
+
+        assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+        for (int iter = 1; iter < expected.getObjList().size(); iter++) {
+            assertEquals(expected.getObjList().get(iter), actual.getObjList().get(iter), EPSILON);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void solve_remappedIdsShouldGiveSameCommunities(String file, @TempDir Path dir) throws IOException {
+        EdgeList plain = GraphLoader.loadEdges(file);
+
+        // sparse 64-bit ids, written in reverse so they are also numbered in a different order.
+        StringBuilder text = new StringBuilder();
+        for (int i = plain.getNumEdge() - 1; i >= 0; i--) {
+            text.append(plain.getSource(i) * 1_000_000_007L + (1L << 40)).append(' ')
+                    .append(plain.getTarget(i) * 1_000_000_007L + (1L << 40)).append('\n');
+        }
+
+        Path sparse = dir.resolve("sparse.edge");
+        Files.write(sparse, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+        IdMap ids = new IdMap();
+        Solution expected = new Solver().solve(new CsrGraph(plain), 5);
+        Solution actual = new Solver().solve(new CsrGraph(GraphLoader.loadEdges(sparse, ids)), 5);
+
+        assertEquals(expected.getObjList().size(), actual.getObjList().size());
+        for (int iter = 1; iter < expected.getObjList().size(); iter++) {
+            assertEquals(expected.getObjList().get(iter), actual.getObjList().get(iter), EPSILON);
+        }
+
+        Set<Set<Long>> expectedComms = new HashSet<>();
+        for (Set<Integer> comm : expected.getOptCommSets().values()) {
+            expectedComms.add(comm.stream().map(node -> node * 1_000_000_007L + (1L << 40))
+                    .collect(Collectors.toSet()));
+        }
+
+        assertEquals(expectedComms, new HashSet<>(ids.toExternal(actual.getOptCommSets()).values()));
+    }
+
+    static Stream<Arguments> splitComponents() {
+        return Stream.of(
+                Arguments.arguments("data/small1.edge", 1, false),
+                Arguments.arguments("data/karate.edge", 1, false),
+                Arguments.arguments("data/dolphins.edge", 1, false),
+                Arguments.arguments("data/dolphins.edge", 4, false),
+                Arguments.arguments("data/karate.edge", 1, true),
+                Arguments.arguments("data/dolphins.edge", 4, true)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("splitComponents")
+    void solve_splitComponentsShouldMatchSerial(String file, int numThreads, boolean weighted)
+            throws IOException {
+        CsrGraph graph = weighted ? weighted(file, 1.0) : new CsrGraph(GraphLoader.loadEdges(file));
+
+        try (Solver sv = new Solver(numThreads)) {
+            sv.setSplitComponents(true);
+
+            Solution expected = new Solver().solve(graph, state -> false);
+            Solution actual = sv.solve(graph, state -> false);
+
+            assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+            for (int iter = 1; iter < expected.getObjList().size(); iter++) {
+                assertEquals(expected.getObjList().get(iter), actual.getObjList().get(iter), EPSILON);
+            }
+
+            assertEquals(expected.getOptIter(), actual.getOptIter());
+            assertEquals(expected.getOptCommSets(), actual.getOptCommSets());
+        }
+    }
+
+    @Test
+    void solve_splitComponentsShouldMergeDisjointGraphs() throws IOException {
+        // two copies of karate with the second one's edges weighing twice as much, so their steps interleave.
+        EdgeList plain = GraphLoader.loadEdges("data/karate.edge");
+        EdgeList edges = new EdgeList();
+
+        for (int i = 0; i < plain.getNumEdge(); i++) {
+            edges.add(plain.getSource(i), plain.getTarget(i), 1.0);
+            edges.add(plain.getSource(i) + 40, plain.getTarget(i) + 40, 2.0 + plain.getSource(i) % 2);
+        }
+
+        CsrGraph graph = new CsrGraph(edges);
+        try (Solver sv = new Solver(2)) {
+            sv.setSplitComponents(true);
+
+            Solution expected = new Solver().solve(graph, state -> false);
+            Solution actual = sv.solve(graph, state -> false);
+
+            assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+            assertEquals(expected.getOptCommSets(), actual.getOptCommSets());
+        }
+    }
+
+    @Test
+    void solve_splitComponentsShouldStopWithinTimeLimit() throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/facebook_ucsd_1000.edge"));
+        Solver sv = new Solver();
+        sv.setSplitComponents(true);
+        sv.setTimeLimit(200);
+
+        long start = System.nanoTime();
+        Solution s = sv.solve(graph, state -> false);
+
+        assertTrue(s.isTruncated());
+        assertTrue(System.nanoTime() - start < 3_000_000_000L);
+        assertEquals(graph.getNumEdge() - s.getNumAliveEdges(), s.getRemovalLog().getNumRemoved());
+        assertEquals(s.getRemovalLog().getNumIter() + 1, s.getObjList().size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void solve_topOneAndZeroEpsilonShouldMatchExact(String file) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges(file));
+        Solution expected = new Solver().solve(graph, state -> false);
+
+        for (BatchMode mode : Arrays.asList(BatchMode.topK(1), BatchMode.withinEpsilon(0.0))) {
+            assertSame(BatchMode.exact(), mode);
+
+            // both still split components like the exact mode.
+            Solver sv = new Solver();
+            sv.setBatchMode(mode);
+            sv.setSplitComponents(true);
+            Solution actual = sv.solve(graph, state -> false);
+
+            assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+            for (int iter = 1; iter < expected.getObjList().size(); iter++) {
+                assertEquals(expected.getObjList().get(iter), actual.getObjList().get(iter), EPSILON);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getEdgesToKill_topKShouldTakeHighestEdges(String file) throws IOException {
+        Solution s = Solution.fromCsr(new CsrGraph(GraphLoader.loadEdges(file)));
+        Solver sv = new Solver();
+        sv.setBatchMode(BatchMode.topK(5));
+
+        Problem p = new Problem(s.getNumEdge(), 1);
+        sv.getEdgesToKill(s, p);
+
+        Set<Integer> edges = p.getEdgesToKill();
+        assertTrue(edges.size() >= 5);
+
+        double lowestIn = Double.POSITIVE_INFINITY;
+        double highestOut = 0.0;
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            if (edges.contains(edge)) {
+                lowestIn = Math.min(lowestIn, p.getBetw(edge));
+            } else {
+                highestOut = Math.max(highestOut, p.getBetw(edge));
+            }
+        }
+
+        assertTrue(lowestIn >= highestOut);
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getEdgesToKill_withinEpsilonShouldTakeBand(String file) throws IOException {
+        Solution s = Solution.fromCsr(new CsrGraph(GraphLoader.loadEdges(file)));
+        Solver sv = new Solver();
+        sv.setBatchMode(BatchMode.withinEpsilon(0.3));
+
+        Problem p = new Problem(s.getNumEdge(), 1);
+        sv.getEdgesToKill(s, p);
+
+        double max = 0.0;
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            max = Math.max(max, p.getBetw(edge));
+        }
+
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            assertEquals(p.getBetw(edge) >= 0.7 * max, p.getEdgesToKill().contains(edge));
+        }
+    }
+
+    static Stream<Arguments> batchModes() {
+        return Stream.of(
+                Arguments.arguments("data/karate.edge", BatchMode.topK(3)),
+                Arguments.arguments("data/karate.edge", BatchMode.withinEpsilon(0.1)),
+                Arguments.arguments("data/karate.edge", BatchMode.untilSplit()),
+                Arguments.arguments("data/dolphins.edge", BatchMode.topK(3)),
+                Arguments.arguments("data/dolphins.edge", BatchMode.withinEpsilon(0.1)),
+                Arguments.arguments("data/dolphins.edge", BatchMode.untilSplit())
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("batchModes")
+    void solve_batchedModesShouldCalculateLessAndDriftLittle(String file, BatchMode mode) throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges(file));
+        int[] numCalc = new int[2];
+
+        Solver exactSolver = new Solver();
+        exactSolver.addListener(event -> numCalc[0] += event.getNumBfs() > 0 ? 1 : 0);
+        Solution exact = exactSolver.solve(graph, state -> false);
+
+        Solver sv = new Solver();
+        sv.setBatchMode(mode);
+        sv.addListener(event -> numCalc[1] += event.getNumBfs() > 0 ? 1 : 0);
+        Solution batched = sv.solve(graph, state -> false);
+
+        assertEquals(0, batched.getNumAliveEdges());
+        assertEquals(graph.getNumEdge(), batched.getRemovalLog().getNumRemoved());
+        assertTrue(numCalc[1] < numCalc[0]);
+
+        DriftReport report = DriftReport.compare(exact, batched);
+        assertEquals(batched.getRemovalLog().getNumIter(), report.getNumIter());
+        assertTrue(report.getMeanDrift() <= report.getMaxDrift());
+        assertTrue(report.getOptModLoss() < 0.1);
+    }
+
+    @Test
+    void solve_untilSplitShouldRecalculateAfterEverySplit() throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        List<IterationEvent> events = new ArrayList<>();
+
+        Solver sv = new Solver();
+        sv.setBatchMode(BatchMode.untilSplit());
+        sv.addListener(events::add);
+        sv.solve(graph, state -> false);
+
+        assertTrue(events.get(0).getNumBfs() > 0);
+        for (int i = 1; i < events.size(); i++) {
+            boolean split = events.get(i - 1).getNumComm() > (i > 1 ? events.get(i - 2).getNumComm() : 1);
+            assertEquals(split, events.get(i).getNumBfs() > 0);
+        }
+    }
+
+    @Test
+    void setBatchMode_invalidModesShouldThrow() {
+        assertThrows(NullPointerException.class,
+                () -> new Solver().setBatchMode(null));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchMode.topK(0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchMode.withinEpsilon(1.0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchMode.withinEpsilon(-0.1));
+    }
+
+    static Stream<Arguments> incremental() {
+        return Stream.of(
+                Arguments.arguments("data/small1.edge", 1, false),
+                Arguments.arguments("data/karate.edge", 1, false),
+                Arguments.arguments("data/dolphins.edge", 1, false),
+                Arguments.arguments("data/dolphins.edge", 4, false),
+                Arguments.arguments("data/karate.edge", 1, true),
+                Arguments.arguments("data/dolphins.edge", 4, true)
+        );
+    }
+
+    // kills the live edge with the lowest betweenness, which few shortest-path DAGs use, so most kills are
+    // handled incrementally.
+    @ParameterizedTest
+    @MethodSource("incremental")
+    void getEdgesToKill_incrementalShouldMatchRecalculation(String file, int numThreads, boolean weighted)
+            throws IOException {
+        CsrGraph graph = weighted ? weighted(file, 1.0) : new CsrGraph(GraphLoader.loadEdges(file));
+
+        try (Solver sv = new Solver(numThreads)) {
+            sv.setIncrementalBetweenness(1L << 30);
+            Solver plain = new Solver();
+
+            Solution s = Solution.fromCsr(graph);
+            Solution expectedS = Solution.fromCsr(graph);
+            int[] numBfs = new int[2];
+
+            for (int iter = 1; iter <= 20 && s.getNumAliveEdges() > 0; iter++) {
+                Problem p = new Problem(s.getNumEdge(), iter);
+                sv.getEdgesToKill(s, p);
+                numBfs[1] += sv.getLastNumBfs();
+
+                Problem expected = new Problem(s.getNumEdge(), iter);
+                plain.getEdgesToKill(expectedS, expected);
+                numBfs[0] += plain.getLastNumBfs();
+
+                int lowest = -1;
+                for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                    assertEquals(expected.getBetw(edge), p.getBetw(edge), EPSILON);
+
+                    if (s.isEdgeAlive(edge) && (lowest < 0 || p.getBetw(edge) < p.getBetw(lowest))) {
+                        lowest = edge;
+                    }
+                }
+
+                assertEquals(expected.getEdgesToKill(), p.getEdgesToKill());
+
+                Problem kill = new Problem(s.getNumEdge(), iter);
+                kill.setEdgesToKill(new HashSet<>(Arrays.asList(lowest)));
+                sv.killEdges(s, kill);
+                plain.killEdges(expectedS, kill);
+            }
+
+            assertTrue(numBfs[1] < numBfs[0]);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("incremental")
+    void solve_incrementalShouldMatchExact(String file, int numThreads, boolean weighted)
+            throws IOException {
+        CsrGraph graph = weighted ? weighted(file, 1.0) : new CsrGraph(GraphLoader.loadEdges(file));
+        int[] numBfs = new int[2];
+
+        try (Solver exactSolver = new Solver(numThreads); Solver sv = new Solver(numThreads)) {
+            exactSolver.addListener(event -> numBfs[0] += event.getNumBfs());
+            Solution expected = exactSolver.solve(graph, state -> false);
+
+            sv.setIncrementalBetweenness(1L << 30);
+            sv.addListener(event -> numBfs[1] += event.getNumBfs());
+            Solution actual = sv.solve(graph, state -> false);
+
+            assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+            for (int iter = 1; iter < expected.getObjList().size(); iter++) {
+                assertEquals(expected.getObjList().get(iter), actual.getObjList().get(iter), EPSILON);
+            }
+
+            assertTrue(numBfs[1] <= numBfs[0]);
+        }
+    }
+
+    @Test
+    void solve_incrementalPastCapShouldRecalculateWhole() throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        int[] numBfs = new int[2];
+
+        Solver exactSolver = new Solver();
+        exactSolver.addListener(event -> numBfs[0] += event.getNumBfs());
+        Solution expected = exactSolver.solve(graph, state -> false);
+
+        // too small for any component but single nodes.
+        Solver sv = new Solver();
+        sv.setIncrementalBetweenness(SourceDags.BYTES_PER_ENTRY);
+        sv.addListener(event -> numBfs[1] += event.getNumBfs());
+        Solution actual = sv.solve(graph, state -> false);
+
+        assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+        assertEquals(numBfs[0], numBfs[1]);
+        assertTrue(actual.getSourceDags().getMemoryUsed() <= SourceDags.BYTES_PER_ENTRY);
+    }
+
+    @Test
+    void getEdgesToKill_incrementalSplitShouldFreeDags() {
+        // two cliques of five joined by a bridge, which is killed first.
+        EdgeList edges = new EdgeList();
+        for (int clique = 0; clique < 10; clique += 5) {
+            for (int u = clique; u < clique + 5; u++) {
+                for (int v = u + 1; v < clique + 5; v++) {
+                    edges.add(u, v);
+                }
+            }
+        }
+        edges.add(4, 5);
+
+        Solution s = Solution.fromCsr(new CsrGraph(edges));
+        Solver sv = new Solver();
+        sv.setIncrementalBetweenness(1L << 30);
+
+        Problem p = new Problem(s.getNumEdge(), 1);
+        sv.getEdgesToKill(s, p);
+        assertEquals(1, p.getEdgesToKill().size());
+        assertEquals(SourceDags.BYTES_PER_ENTRY * 100L, s.getSourceDags().getMemoryUsed());
+
+        sv.killEdges(s, p);
+        sv.getEdgesToKill(s, new Problem(s.getNumEdge(), 2));
+
+        assertEquals(SourceDags.BYTES_PER_ENTRY * 50L, s.getSourceDags().getMemoryUsed());
+    }
+
+    @Test
+    void solve_incrementalUntilSplitShouldMatchUntilSplit() throws IOException {
+        CsrGraph graph = new CsrGraph(GraphLoader.loadEdges("data/dolphins.edge"));
+
+        Solver plain = new Solver();
+        plain.setBatchMode(BatchMode.untilSplit());
+        Solution expected = plain.solve(graph, state -> false);
+
+        Solver sv = new Solver();
+        sv.setBatchMode(BatchMode.untilSplit());
+        sv.setIncrementalBetweenness(1L << 30);
+        Solution actual = sv.solve(graph, state -> false);
+
+        assertEquals(expected.getKilledEdgeList(), actual.getKilledEdgeList());
+    }
+
+    static Stream<Arguments> unweighted() throws IOException {
+        // a 10 x 10 grid has more nodes than one multi-source batch, with many shortest paths per pair.
+        EdgeList grid = new EdgeList();
+        for (int node = 0; node < 100; node++) {
+            if (node % 10 < 9) {
+                grid.add(node, node + 1);
+            }
+
+            if (node < 90) {
+                grid.add(node, node + 10);
+            }
+        }
+
+        // every node of one side of a complete bipartite graph has the other side as predecessors, and the
+        // frontier soon holds more slots than the rest of the graph, so searches go bottom-up.
+        EdgeList bipartite = new EdgeList();
+        for (int node1 = 0; node1 < 5; node1++) {
+            for (int node2 = 5; node2 < 45; node2++) {
+                bipartite.add(node1, node2);
+            }
+        }
+
+        for (int node = 44; node < 50; node++) {
+            bipartite.add(node, node + 1);
+        }
+
+        return Stream.of(
+                Arguments.arguments(new CsrGraph(GraphLoader.loadEdges("data/small1.edge")), 1),
+                Arguments.arguments(new CsrGraph(GraphLoader.loadEdges("data/karate.edge")), 1),
+                Arguments.arguments(new CsrGraph(GraphLoader.loadEdges("data/dolphins.edge")), 4),
+                Arguments.arguments(new CsrGraph(grid), 1),
+                Arguments.arguments(new CsrGraph(grid), 3),
+                Arguments.arguments(new CsrGraph(bipartite), 1),
+                Arguments.arguments(new CsrGraph(bipartite), 2)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("unweighted")
+    void getEdgesToKill_singleSourceShouldMatchAllPairs(CsrGraph g, int numThreads) {
+        Solution s = Solution.fromCsr(g);
+        Problem p = new Problem(s.getNumEdge(), 1);
+
+        try (Solver sv = new Solver(numThreads)) {
+            sv.setIncrementalBetweenness(1L << 30);
+            sv.getEdgesToKill(s, p);
+
+            double[] expected = allPairsBetweenness(g);
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                assertEquals(expected[edge], p.getBetw(edge), EPSILON);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("unweighted")
+    void getEdgesToKill_multiSourceShouldMatchAllPairs(CsrGraph g, int numThreads) {
+        Solution s = Solution.fromCsr(g);
+        Problem p = new Problem(s.getNumEdge(), 1);
+
+        try (Solver sv = new Solver(numThreads)) {
+            sv.getEdgesToKill(s, p);
+        }
+
+        double[] expected = allPairsBetweenness(g);
+        for (int edge = 0; edge < s.getNumEdge(); edge++) {
+            assertEquals(expected[edge], p.getBetw(edge), EPSILON);
+        }
+    }
+
+    // kept DAGs make every source search on its own, so the two paths are compared on the same removals.
+    @ParameterizedTest
+    @MethodSource("unweighted")
+    void getEdgesToKill_multiSourceShouldMatchSingleSource(CsrGraph g, int numThreads) {
+        try (Solver multi = new Solver(numThreads); Solver single = new Solver(numThreads)) {
+            single.setIncrementalBetweenness(1L << 30);
+
+            Solution s = Solution.fromCsr(g);
+            Solution expectedS = Solution.fromCsr(g);
+
+            for (int iter = 1; iter <= 10 && s.getNumAliveEdges() > 0; iter++) {
+                Problem p = new Problem(s.getNumEdge(), iter);
+                multi.getEdgesToKill(s, p);
+
+                Problem expected = new Problem(s.getNumEdge(), iter);
+                single.getEdgesToKill(expectedS, expected);
+
+                for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                    assertEquals(expected.getBetw(edge), p.getBetw(edge), EPSILON);
+                }
+
+                assertEquals(expected.getEdgesToKill(), p.getEdgesToKill());
+
+                multi.killEdges(s, p);
+                single.killEdges(expectedS, p);
+            }
+        }
+    }
+
+    // rings with two random chords per node, each joined to the next by one edge. Large enough for single
+    // sources to be searched on all threads, with levels of thousands of nodes.
+    private static CsrGraph chordedRings(int ringSize, int numRings) {
+        Random random = new Random(17);
+        EdgeList edges = new EdgeList();
+
+        for (int ring = 0; ring < numRings; ring++) {
+            int first = ring * ringSize;
+
+            for (int node = first; node < first + ringSize; node++) {
+                edges.add(node, first + (node - first + 1) % ringSize);
+
+                for (int chord = 0; chord < 2; chord++) {
+                    int other = first + random.nextInt(ringSize);
+
+                    if (other != node) {
+                        edges.add(node, other);
+                    }
+                }
+            }
+
+            if (ring > 0) {
+                edges.add(first - 1, first);
+            }
+        }
+
+        return new CsrGraph(edges);
+    }
+
+    static Stream<Arguments> fewSources() {
+        return Stream.of(
+                Arguments.arguments(1, 2),
+                Arguments.arguments(3, 4),
+                Arguments.arguments(2, 8)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("fewSources")
+    void getEdgesToKill_levelParallelShouldMatchSerial(int sampleSize, int numThreads) {
+        Solution s = Solution.fromCsr(chordedRings(20000, 1));
+        Problem serial = new Problem(s.getNumEdge(), 1);
+        Problem parallel = new Problem(s.getNumEdge(), 1);
+
+        Solver serialSolver = new Solver();
+        serialSolver.setSampleSize(sampleSize, 5);
+        serialSolver.getEdgesToKill(s, serial);
+
+        try (Solver parallelSolver = new Solver(numThreads)) {
+            parallelSolver.setSampleSize(sampleSize, 5);
+            parallelSolver.getEdgesToKill(s, parallel);
+
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                assertEquals(serial.getBetw(edge), parallel.getBetw(edge), EPSILON);
+            }
+
+            assertEquals(serial.getEdgesToKill(), parallel.getEdgesToKill());
+        }
+    }
+
+    @Test
+    void getEdgesToKill_levelParallelShouldMatchSerialAfterKills() {
+        Solution serialS = Solution.fromCsr(chordedRings(20000, 1));
+        Solution parallelS = Solution.fromCsr(chordedRings(20000, 1));
+
+        Solver serialSolver = new Solver();
+        serialSolver.setSampleSize(2, 3);
+        try (Solver parallelSolver = new Solver(4)) {
+            parallelSolver.setSampleSize(2, 3);
+
+            for (int iter = 1; iter <= 3; iter++) {
+                Problem serial = new Problem(serialS.getNumEdge(), iter);
+                serialSolver.getEdgesToKill(serialS, serial);
+
+                Problem parallel = new Problem(parallelS.getNumEdge(), iter);
+                parallelSolver.getEdgesToKill(parallelS, parallel);
+
+                for (int edge = 0; edge < serialS.getNumEdge(); edge++) {
+                    assertEquals(serial.getBetw(edge), parallel.getBetw(edge), EPSILON);
+                }
+
+                assertEquals(serial.getEdgesToKill(), parallel.getEdgesToKill());
+
+                serialSolver.killEdges(serialS, serial);
+                parallelSolver.killEdges(parallelS, parallel);
+            }
+        }
+    }
+
+    // the bridge between the rings stands out after a few batches of sources.
+    @Test
+    void getEdgesToKill_levelParallelAdaptiveShouldMatchSerial() {
+        Solution s = Solution.fromCsr(chordedRings(10000, 2));
+        Problem serial = new Problem(s.getNumEdge(), 1);
+        Problem parallel = new Problem(s.getNumEdge(), 1);
+
+        Solver serialSolver = new Solver();
+        serialSolver.setAdaptiveSampling(0.9, 2, 3);
+        serialSolver.getEdgesToKill(s, serial);
+
+        try (Solver parallelSolver = new Solver(4)) {
+            parallelSolver.setAdaptiveSampling(0.9, 2, 3);
+            parallelSolver.getEdgesToKill(s, parallel);
+
+            assertEquals(serialSolver.getLastNumSampled(), parallelSolver.getLastNumSampled());
+            assertTrue(parallelSolver.getLastNumSampled() < s.getNumVert());
+
+            for (int edge = 0; edge < s.getNumEdge(); edge++) {
+                assertEquals(serial.getBetw(edge), parallel.getBetw(edge), EPSILON);
+            }
+
+            assertEquals(serial.getEdgesToKill(), parallel.getEdgesToKill());
+        }
+    }
+
     @Test
-    void solve_shouldGiveCorrectResult() {
-        fail("Not implemented yet.");
+    void setIncrementalBetweenness_nonPositiveCapShouldThrowIAE() {
+        Solver sv = new Solver();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sv.setIncrementalBetweenness(0));
+
+        sv.setIncrementalBetweenness(1);
+        assertTrue(sv.isIncrementalBetweenness());
+        sv.disableIncrementalBetweenness();
+        assertFalse(sv.isIncrementalBetweenness());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package girvannewman;
+
+import graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+import util.GraphLoader;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StopPolicyTest {
+    private static SolverState stateWith(double... mods) throws IOException {
+        SolverState state = new SolverState(Solution.fromCsr(new CsrGraph(GraphLoader.loadEdges("data/small1.edge"))));
+
+        for (double mod : mods) {
+            state.advance(mod);
+        }
+
+        return state;
+    }
+
+    @Test
+    void nonImproving_shouldFollowOriginalRule() throws IOException {
+        StopPolicy policy = StopPolicy.nonImproving(2);
+
+        assertFalse(policy.shouldStop(stateWith()));
+        assertFalse(policy.shouldStop(stateWith(0.3, 0.2)));
+        assertTrue(policy.shouldStop(stateWith(0.3, 0.2, 0.1)));
+        assertFalse(policy.shouldStop(stateWith(0.3, 0.2, 0.1, 0.4)));
+
+        // a zero threshold stops at the first worse iteration.
+        assertTrue(StopPolicy.nonImproving(0).shouldStop(stateWith(0.3, 0.2)));
+        assertFalse(StopPolicy.nonImproving(0).shouldStop(stateWith(0.3, 0.3)));
+    }
+
+    @Test
+    void modularityPlateau_shouldCompareWindowWithBestBefore() throws IOException {
+        StopPolicy policy = StopPolicy.modularityPlateau(2, 0.01);
+
+        assertFalse(policy.shouldStop(stateWith(0.1, 0.2)));
+        assertFalse(policy.shouldStop(stateWith(0.1, 0.2, 0.3)));
+        assertTrue(policy.shouldStop(stateWith(0.1, 0.3, 0.305, 0.2)));
+        assertFalse(policy.shouldStop(stateWith(0.1, 0.3, 0.2, 0.32)));
+    }
+
+    @Test
+    void maxIterations_shouldStopAtLimit() throws IOException {
+        assertTrue(StopPolicy.maxIterations(0).shouldStop(stateWith()));
+        assertFalse(StopPolicy.maxIterations(3).shouldStop(stateWith(0.1, 0.2)));
+        assertTrue(StopPolicy.maxIterations(3).shouldStop(stateWith(0.1, 0.2, 0.3)));
+    }
+
+    @Test
+    void combinators_shouldFollowBooleanLogic() throws IOException {
+        StopPolicy yes = state -> true;
+        StopPolicy no = state -> false;
+        SolverState state = stateWith();
+
+        assertTrue(yes.or(no).shouldStop(state));
+        assertFalse(no.or(no).shouldStop(state));
+        assertFalse(yes.and(no).shouldStop(state));
+        assertTrue(yes.and(yes).shouldStop(state));
+    }
+
+    @Test
+    void getOptModAt_shouldTrackRunningBest() throws IOException {
+        SolverState state = stateWith(0.2, 0.1, 0.4, 0.3);
+
+        assertEquals(4, state.getIter());
+        assertEquals(3, state.getOptIter());
+        assertEquals(2, state.getNumNonImproving());
+        assertEquals(0.2, state.getOptModAt(2));
+        assertEquals(0.4, state.getOptModAt(4));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> state.getOptModAt(5));
+    }
+
+    @Test
+    void factories_invalidArgumentsShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> StopPolicy.nonImproving(-1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StopPolicy.maxIterations(-1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StopPolicy.targetCommunities(0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StopPolicy.modularityPlateau(0, 0.0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StopPolicy.modularityPlateau(1, -0.1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StopPolicy.minComponentSize(0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StopPolicy.minComponentSize(1));
+    }
+}
@@ -0,0 +1,73 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static util.Constants.EPSILON;
+
+class BetwCacheTest {
+    @Test
+    void ctor_allNodesShouldBeStale() {
+        BetwCache cache = new BetwCache(5, 4);
+
+        assertEquals(5, cache.getNumStale());
+
+        Set<Integer> staleNodes = new HashSet<>();
+        for (int i = 0; i < cache.getNumStale(); i++) {
+            staleNodes.add(cache.getStaleNode(i));
+        }
+
+        for (int node = 0; node < 5; node++) {
+            assertTrue(cache.isStale(node));
+            assertTrue(staleNodes.contains(node));
+        }
+
+        for (int edge = 0; edge < 4; edge++) {
+            assertEquals(0.0, cache.getBetw(edge), EPSILON);
+        }
+    }
+
+    @Test
+    void ctor_negativeSizeShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BetwCache(-1, 0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new BetwCache(0, -1));
+    }
+
+    @Test
+    void markStale_shouldCountEachNodeOnce() {
+        BetwCache cache = new BetwCache(5, 4);
+        cache.clearStale();
+
+        assertEquals(0, cache.getNumStale());
+        assertFalse(cache.isStale(3));
+
+        cache.markStale(3);
+        cache.markStale(1);
+        cache.markStale(3);
+
+        assertEquals(2, cache.getNumStale());
+        assertEquals(3, cache.getStaleNode(0));
+        assertEquals(1, cache.getStaleNode(1));
+        assertTrue(cache.isStale(1));
+        assertTrue(cache.isStale(3));
+        assertFalse(cache.isStale(0));
+    }
+
+    @Test
+    void incBetw_shouldAccumulateUntilReset() {
+        BetwCache cache = new BetwCache(5, 4);
+
+        cache.incBetw(2, 1.5);
+        cache.incBetw(2, 2.5);
+        assertEquals(4.0, cache.getBetw(2), EPSILON);
+
+        cache.resetBetw(2);
+        assertEquals(0.0, cache.getBetw(2), EPSILON);
+    }
+}
@@ -0,0 +1,104 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static util.Constants.EPSILON;
+
+class BfsWorkspaceTest {
+    static Stream<Arguments> values() {
+        return Stream.of(
+                Arguments.arguments(0, 0),
+                Arguments.arguments(1, 0),
+                Arguments.arguments(5, 8),
+                Arguments.arguments(62, 318)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("values")
+    void ctor_hasCorrectValues(int numVert, int numSlot) {
+        BfsWorkspace ws = new BfsWorkspace(numVert, numSlot);
+
+        assertTrue(ws.fits(numVert, numSlot));
+        assertFalse(ws.fits(numVert + 1, numSlot));
+        assertFalse(ws.fits(numVert, numSlot + 1));
+        assertEquals(0, ws.getNumTouched());
+
+        for (int node = 0; node < numVert; node++) {
+            assertEquals(-1, ws.getDist()[node]);
+            assertEquals(0.0, ws.getSigma()[node], EPSILON);
+            assertEquals(0.0, ws.getDelta()[node], EPSILON);
+            assertEquals(0, ws.getPredCount()[node]);
+        }
+
+        assertEquals(numSlot, ws.getPredNode().length);
+        assertEquals(numSlot, ws.getPredEdge().length);
+    }
+
+    @Test
+    void ctor_negativeSizeShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BfsWorkspace(-1, 0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new BfsWorkspace(0, -1));
+    }
+
+    @Test
+    void reset_shouldClearOnlyTouchedNodes() {
+        BfsWorkspace ws = new BfsWorkspace(5, 8);
+
+        int[] queue = ws.getQueue();
+        queue[0] = 3;
+        queue[1] = 1;
+
+        for (int node : new int[]{3, 1}) {
+            ws.getDist()[node] = 2;
+            ws.getSigma()[node] = 4.0;
+            ws.getDelta()[node] = 1.5;
+            ws.getPredCount()[node] = 1;
+        }
+
+        // untouched nodes keep whatever was written to them.
+        ws.getDist()[4] = 7;
+
+        ws.setNumTouched(2);
+        ws.reset();
+
+        assertEquals(0, ws.getNumTouched());
+
+        for (int node : new int[]{3, 1}) {
+            assertEquals(-1, ws.getDist()[node]);
+            assertEquals(0.0, ws.getSigma()[node], EPSILON);
+            assertEquals(0.0, ws.getDelta()[node], EPSILON);
+            assertEquals(0, ws.getPredCount()[node]);
+        }
+
+        assertEquals(7, ws.getDist()[4]);
+    }
+
+    @Test
+    void listUnvisited_shouldListUnreachedNodesUntilReset() {
+        BfsWorkspace ws = new BfsWorkspace(5, 8);
+        assertFalse(ws.isUnvisitedListed());
+
+        ws.getQueue()[0] = 2;
+        ws.getDist()[2] = 0;
+        ws.setNumTouched(1);
+        ws.listUnvisited();
+
+        assertTrue(ws.isUnvisitedListed());
+        assertEquals(4, ws.getNumUnvisited());
+        assertArrayEquals(new int[]{0, 1, 3, 4}, Arrays.copyOf(ws.getUnvisited(), 4));
+
+        ws.reset();
+        assertFalse(ws.isUnvisitedListed());
+    }
+}
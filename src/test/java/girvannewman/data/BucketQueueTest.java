@@ -0,0 +1,83 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BucketQueueTest {
+    // replays the keys Dijkstra's algorithm would produce on a random graph, each one within maxStep of
+    // the last key polled.
+    @Test
+    void poll_shouldGiveNodesByKey() {
+        Random random = new Random(11);
+        int numNode = 500;
+        int maxStep = 6;
+        long[] keys = new long[numNode];
+        BucketQueue queue = new BucketQueue(numNode, maxStep);
+
+        queue.add(0, 0);
+        int numAdded = 1;
+        long last = 0;
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+
+            assertFalse(queue.contains(node));
+            assertTrue(keys[node] >= last);
+            last = keys[node];
+
+            for (int i = 0; i < 3 && numAdded < numNode; i++) {
+                keys[numAdded] = last + 1 + random.nextInt(maxStep);
+                queue.add(numAdded, keys[numAdded]);
+                numAdded++;
+            }
+
+            if (numAdded > 2 && queue.contains(numAdded - 2) && keys[numAdded - 2] > last + 1) {
+                keys[numAdded - 2]--;
+                queue.decrease(numAdded - 2, keys[numAdded - 2]);
+            }
+        }
+
+        assertEquals(numNode, numAdded);
+    }
+
+    @Test
+    void add_emptyQueueShouldOnlyMoveCursorWhenNeeded() {
+        BucketQueue queue = new BucketQueue(3, 4);
+        queue.add(0, 9);
+        assertEquals(0, queue.poll());
+
+        // later keys of the same search may be smaller than the first one added after emptying.
+        queue.add(1, 12);
+        queue.add(2, 10);
+        assertEquals(2, queue.poll());
+        assertEquals(1, queue.poll());
+
+        // a new search starts over from a smaller key.
+        queue.add(0, 0);
+        assertEquals(0, queue.poll());
+    }
+
+    @Test
+    void add_keyOutOfRangeShouldThrowIAE() {
+        BucketQueue queue = new BucketQueue(4, 2);
+        queue.add(0, 10);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> queue.add(1, 13));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> queue.add(1, 9));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> queue.add(0, 11));
+    }
+
+    @Test
+    void poll_emptyShouldThrowISE() {
+        assertThrows(IllegalStateException.class,
+                () -> new BucketQueue(2, 1).poll());
+    }
+}
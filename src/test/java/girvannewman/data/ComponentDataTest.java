@@ -0,0 +1,104 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentDataTest {
+    @Test
+    void ctor_shouldBeUnlabelled() {
+        ComponentData comps = new ComponentData(4);
+
+        assertFalse(comps.isLabelled());
+        assertEquals(4, comps.getNumVert());
+        assertEquals(0, comps.getNumComm());
+
+        for (int node = 0; node < 4; node++) {
+            assertEquals(-1, comps.getComm(node));
+        }
+    }
+
+    @Test
+    void ctor_negativeSizeShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ComponentData(-1));
+    }
+
+    @Test
+    void putInComm_shouldMoveNodeAndUpdateSizes() {
+        ComponentData comps = new ComponentData(4);
+
+        int comm0 = comps.initNewComm();
+        int comm1 = comps.initNewComm();
+        assertEquals(0, comm0);
+        assertEquals(1, comm1);
+
+        comps.putInComm(comm0, 0);
+        comps.putInComm(comm0, 1);
+        comps.putInComm(comm0, 2);
+        comps.putInComm(comm1, 3);
+
+        assertEquals(3, comps.getCommSize(comm0));
+        assertEquals(1, comps.getCommSize(comm1));
+
+        comps.putInComm(comm1, 2);
+
+        assertEquals(comm1, comps.getComm(2));
+        assertEquals(2, comps.getCommSize(comm0));
+        assertEquals(2, comps.getCommSize(comm1));
+        assertArrayEquals(new int[]{0, 0, 1, 1}, comps.exportLabels());
+    }
+
+    @Test
+    void setCommTotals_shouldKeepSumsConsistent() {
+        ComponentData comps = new ComponentData(4);
+        int comm0 = comps.initNewComm();
+        int comm1 = comps.initNewComm();
+
+        comps.setCommTotals(comm0, 5, 12);
+        assertEquals(5, comps.getInternalEdges());
+        assertEquals(144, comps.getSumDegSq());
+
+        comps.setCommTotals(comm1, 1, 4);
+        comps.setCommTotals(comm0, 3, 8);
+
+        assertEquals(3, comps.getCommEdges(comm0));
+        assertEquals(8, comps.getCommDeg(comm0));
+        assertEquals(4, comps.getInternalEdges());
+        assertEquals(64 + 16, comps.getSumDegSq());
+
+        comps.setSelfDegSq(30);
+        assertEquals(30, comps.getSelfDegSq());
+    }
+
+    @Test
+    void addPendingKill_shouldOnlyRecordOnceLabelled() {
+        ComponentData comps = new ComponentData(4);
+
+        comps.addPendingKill(3);
+        assertEquals(0, comps.getNumPending());
+
+        comps.setLabelled();
+        for (int edge = 0; edge < 40; edge++) {
+            comps.addPendingKill(edge);
+        }
+
+        assertEquals(40, comps.getNumPending());
+        assertEquals(0, comps.getPendingKill(0));
+        assertEquals(39, comps.getPendingKill(39));
+
+        comps.clearPending();
+        assertEquals(0, comps.getNumPending());
+    }
+
+    @Test
+    void nextStamp_shouldNotRepeat() {
+        ComponentData comps = new ComponentData(4);
+
+        int stamp1 = comps.nextStamp();
+        int stamp2 = comps.nextStamp();
+
+        assertTrue(stamp1 > 1);
+        assertTrue(stamp2 - 1 > stamp1);
+    }
+}
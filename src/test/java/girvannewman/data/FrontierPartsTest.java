@@ -0,0 +1,46 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrontierPartsTest {
+    @Test
+    void add_shouldGrowEachPartOnItsOwn() {
+        FrontierParts parts = new FrontierParts(2);
+
+        for (int node = 0; node < 100; node++) {
+            parts.add(1, node);
+        }
+
+        parts.add(0, 7);
+
+        assertEquals(2, parts.getNumParts());
+        assertEquals(1, parts.getSize(0));
+        assertEquals(100, parts.getSize(1));
+        assertEquals(7, parts.getNodes(0)[0]);
+        assertEquals(99, parts.getNodes(1)[99]);
+    }
+
+    @Test
+    void setSize_shouldKeepFirstNodes() {
+        FrontierParts parts = new FrontierParts(1);
+        parts.add(0, 4);
+        parts.add(0, 2);
+        parts.add(0, 9);
+
+        parts.setSize(0, 2);
+        assertArrayEquals(new int[]{4, 2}, Arrays.copyOf(parts.getNodes(0), parts.getSize(0)));
+
+        parts.clear(0);
+        assertEquals(0, parts.getSize(0));
+    }
+
+    @Test
+    void ctor_nonPositivePartsShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FrontierParts(0));
+    }
+}
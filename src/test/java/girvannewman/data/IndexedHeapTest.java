@@ -0,0 +1,66 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedHeapTest {
+    @Test
+    void poll_shouldGiveNodesByKey() {
+        Random random = new Random(7);
+        int numNode = 200;
+        double[] keys = new double[numNode];
+        IndexedHeap heap = new IndexedHeap(numNode);
+
+        for (int node = 0; node < numNode; node++) {
+            keys[node] = random.nextDouble() * 100;
+            heap.add(node, keys[node]);
+        }
+
+        for (int node = 0; node < numNode; node += 3) {
+            keys[node] /= 2;
+            heap.decrease(node, keys[node]);
+        }
+
+        assertEquals(numNode, heap.size());
+
+        double last = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+
+            assertFalse(heap.contains(node));
+            assertTrue(keys[node] >= last);
+            last = keys[node];
+        }
+    }
+
+    @Test
+    void add_nodeTwiceShouldThrowIAE() {
+        IndexedHeap heap = new IndexedHeap(3);
+        heap.add(1, 2.0);
+
+        assertTrue(heap.contains(1));
+        assertThrows(IllegalArgumentException.class,
+                () -> heap.add(1, 1.0));
+    }
+
+    @Test
+    void decrease_largerKeyShouldThrowIAE() {
+        IndexedHeap heap = new IndexedHeap(3);
+        heap.add(1, 2.0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> heap.decrease(1, 3.0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> heap.decrease(0, 1.0));
+    }
+
+    @Test
+    void poll_emptyShouldThrowISE() {
+        assertThrows(IllegalStateException.class,
+                () -> new IndexedHeap(2).poll());
+    }
+}
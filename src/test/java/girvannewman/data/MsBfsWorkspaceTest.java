@@ -0,0 +1,79 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static util.Constants.EPSILON;
+
+class MsBfsWorkspaceTest {
+    @Test
+    void ctor_hasCorrectValues() {
+        MsBfsWorkspace ws = new MsBfsWorkspace(5);
+
+        assertTrue(ws.fits(5));
+        assertFalse(ws.fits(6));
+        assertEquals(0, ws.getNumLevels());
+        assertEquals(5, ws.getSeen().length);
+        assertEquals(5 * MsBfsWorkspace.WIDTH, ws.getSigma().length);
+        assertEquals(5 * MsBfsWorkspace.WIDTH, ws.getDelta().length);
+    }
+
+    @Test
+    void ctor_invalidSizeShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MsBfsWorkspace(-1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new MsBfsWorkspace(Integer.MAX_VALUE / MsBfsWorkspace.WIDTH + 1));
+    }
+
+    @Test
+    void endLevel_shouldGroupEntriesAndGrow() {
+        MsBfsWorkspace ws = new MsBfsWorkspace(3);
+
+        ws.addEntry(0, 1L);
+        ws.addEntry(2, 1L << 63);
+        ws.endLevel();
+
+        // far more entries and levels than the starting capacity.
+        for (int level = 0; level < 40; level++) {
+            ws.addEntry(1, 3L);
+            ws.endLevel();
+        }
+
+        assertEquals(41, ws.getNumLevels());
+        assertEquals(0, ws.getLevelStart(0));
+        assertEquals(2, ws.getLevelStart(1));
+        assertEquals(42, ws.getLevelStart(41));
+        assertEquals(2, ws.getEntryNode(1));
+        assertEquals(1L << 63, ws.getEntryMask(1));
+        assertEquals(1, ws.getEntryNode(41));
+    }
+
+    @Test
+    void reset_shouldClearOnlyReachedSources() {
+        MsBfsWorkspace ws = new MsBfsWorkspace(4);
+        int width = MsBfsWorkspace.WIDTH;
+
+        ws.getSeen()[2] = 5L;
+        ws.getSigma()[2 * width] = 3.0;
+        ws.getSigma()[2 * width + 2] = 1.0;
+        ws.getDelta()[2 * width + 2] = 0.5;
+        ws.addEntry(2, 5L);
+        ws.endLevel();
+
+        // bits that are not in any entry keep whatever was written to them.
+        ws.getSigma()[2 * width + 1] = 7.0;
+        ws.getSeen()[3] = 1L;
+
+        ws.reset();
+
+        assertEquals(0, ws.getNumLevels());
+        assertEquals(0L, ws.getSeen()[2]);
+        assertEquals(0.0, ws.getSigma()[2 * width], EPSILON);
+        assertEquals(0.0, ws.getSigma()[2 * width + 2], EPSILON);
+        assertEquals(0.0, ws.getDelta()[2 * width + 2], EPSILON);
+        assertEquals(7.0, ws.getSigma()[2 * width + 1], EPSILON);
+        assertEquals(1L, ws.getSeen()[3]);
+    }
+}
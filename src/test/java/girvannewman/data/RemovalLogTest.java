@@ -0,0 +1,140 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static util.Constants.EPSILON;
+
+class RemovalLogTest {
+    private static RemovalLog sample(int numIter) {
+        RemovalLog log = new RemovalLog();
+
+        for (int iter = 1; iter <= numIter; iter++) {
+            int[] removed = new int[iter % 3];
+            for (int i = 0; i < removed.length; i++) {
+                removed[i] = 10 * iter + i;
+            }
+
+            log.add(iter / 10.0, removed);
+        }
+
+        return log;
+    }
+
+    @Test
+    void ctor_shouldHoldUnsplitGraph() {
+        RemovalLog log = new RemovalLog();
+
+        assertEquals(0, log.getNumIter());
+        assertEquals(0, log.getNumRemoved());
+        assertEquals(0.0, log.getObj(0), EPSILON);
+        assertEquals(0, log.getNumRemoved(0));
+    }
+
+    @Test
+    void add_shouldKeepRemovalOrderAndBoundaries() {
+        RemovalLog log = sample(40);
+
+        assertEquals(40, log.getNumIter());
+        assertEquals(40, log.getNumRemoved());
+        assertEquals(2.5, log.getObj(25), EPSILON);
+
+        assertEquals(2, log.getNumRemoved(5));
+        assertEquals(50, log.getRemoved(5, 0));
+        assertEquals(51, log.getRemoved(5, 1));
+        assertEquals(0, log.getNumRemoved(6));
+
+        assertEquals(log.getRemoved(5, 1), log.getRemovedAt(log.getIterStart(5) + 1));
+    }
+
+    @Test
+    void add_collectionShouldBeSorted() {
+        RemovalLog log = new RemovalLog();
+        log.add(0.5, new HashSet<>(Arrays.asList(9, 3, 7)));
+
+        assertEquals(3, log.getRemoved(1, 0));
+        assertEquals(7, log.getRemoved(1, 1));
+        assertEquals(9, log.getRemoved(1, 2));
+    }
+
+    @Test
+    void getObj_invalidIterShouldThrowIAE() {
+        RemovalLog log = sample(3);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> log.getObj(4));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> log.getNumRemoved(-1));
+    }
+
+    @Test
+    void load_shouldMatchExported(@TempDir Path dir) throws IOException {
+        RemovalLog expected = sample(100);
+        Path path = dir.resolve("run.log");
+
+        expected.export(path);
+        RemovalLog actual = RemovalLog.load(path);
+
+        assertEquals(expected.getNumIter(), actual.getNumIter());
+        assertEquals(expected.getNumRemoved(), actual.getNumRemoved());
+
+        for (int iter = 0; iter <= expected.getNumIter(); iter++) {
+            assertEquals(expected.getObj(iter), actual.getObj(iter));
+            assertEquals(expected.getNumRemoved(iter), actual.getNumRemoved(iter));
+
+            for (int i = 0; i < expected.getNumRemoved(iter); i++) {
+                assertEquals(expected.getRemoved(iter, i), actual.getRemoved(iter, i));
+            }
+        }
+
+        actual.add(0.0, new int[]{1, 2});
+        assertEquals(101, actual.getNumIter());
+        assertEquals(2, actual.getNumRemoved(101));
+    }
+
+    @Test
+    void load_corruptedLogShouldThrowIAE(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("run.log");
+        sample(10).export(path);
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[40] ^= 1;
+        Files.write(path, bytes);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> RemovalLog.load(path));
+
+        Files.write(path, Arrays.copyOf(bytes, 20));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> RemovalLog.load(path));
+    }
+
+    @Test
+    void load_corruptedHeaderShouldThrowIAE(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("run.log");
+        sample(10).export(path);
+        byte[] original = Files.readAllBytes(path);
+
+        // numIter sits at offset 8, numRemoved at offset 12
+        for (int offset : new int[]{8, 12}) {
+            for (int count : new int[]{Integer.MAX_VALUE, 1 << 28, 1}) {
+                ByteBuffer bytes = ByteBuffer.wrap(original.clone());
+                bytes.putInt(offset, count);
+                Files.write(path, bytes.array());
+
+                assertThrows(IllegalArgumentException.class,
+                        () -> RemovalLog.load(path));
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static util.Constants.EPSILON;
+
+class SourceDagsTest {
+    @Test
+    void tryKeep_shouldStayWithinCap() {
+        SourceDags dags = new SourceDags(6, SourceDags.BYTES_PER_ENTRY * 14);
+
+        assertTrue(dags.tryKeep(new int[]{0, 2, 4}, 3));
+        assertFalse(dags.tryKeep(new int[]{1, 3, 5}, 3));
+        assertTrue(dags.tryKeep(new int[]{1, 3}, 2));
+
+        assertEquals((long) SourceDags.BYTES_PER_ENTRY * 13, dags.getMemoryUsed());
+        assertTrue(dags.isKept(0) && dags.isKept(3));
+        assertFalse(dags.isKept(5));
+    }
+
+    @Test
+    void drop_shouldCreditMemoryBack() {
+        SourceDags dags = new SourceDags(6, SourceDags.BYTES_PER_ENTRY * 13);
+
+        assertTrue(dags.tryKeep(new int[]{0, 2, 4}, 3));
+        assertTrue(dags.tryKeep(new int[]{1, 3}, 2));
+        assertFalse(dags.tryKeep(new int[]{5, 1, 3}, 3));
+
+        dags.drop(2);
+        dags.drop(4);
+
+        assertEquals((long) SourceDags.BYTES_PER_ENTRY * 4, dags.getMemoryUsed());
+        assertFalse(dags.isKept(0) || dags.isKept(4));
+        assertArrayEquals(new int[]{1, 3}, dags.getGroup(3));
+        assertTrue(dags.tryKeep(new int[]{0, 4, 5}, 3));
+    }
+
+    @Test
+    void store_shouldCopyWorkspaceAndForgetOldReach() {
+        SourceDags dags = new SourceDags(4, 1 << 20);
+        dags.tryKeep(new int[]{0, 1, 2, 3}, 4);
+
+        // path 0 - 1 - 2 - 3 searched from 0.
+        BfsWorkspace ws = new BfsWorkspace(4, 6);
+        int[] order = {0, 1, 2, 3};
+        for (int node = 0; node < 4; node++) {
+            ws.getQueue()[node] = order[node];
+            ws.getDist()[node] = node;
+            ws.getSigma()[node] = 1.0;
+        }
+        ws.setNumTouched(4);
+        dags.store(0, ws, true);
+
+        assertEquals(4, dags.getNumReached(0));
+        assertEquals(3.0, dags.getLength(0, 3), EPSILON);
+        assertEquals(1.0, dags.getSigma(0, 2), EPSILON);
+        assertEquals(2, dags.getReached(0, 2));
+
+        // the path is cut between 1 and 2.
+        ws.reset();
+        ws.getQueue()[0] = 0;
+        ws.getQueue()[1] = 1;
+        ws.getDist()[0] = 0;
+        ws.getDist()[1] = 1;
+        ws.setNumTouched(2);
+        dags.store(0, ws, true);
+
+        assertEquals(2, dags.getNumReached(0));
+        assertEquals(Double.POSITIVE_INFINITY, dags.getLength(0, 3));
+    }
+
+    @Test
+    void addPending_shouldCountEachSourceOnce() {
+        SourceDags dags = new SourceDags(40, 1);
+
+        for (int src = 0; src < 40; src++) {
+            dags.addPending(src);
+            dags.addPending(src);
+        }
+
+        assertEquals(40, dags.getNumPending());
+        assertTrue(dags.isPending(17));
+
+        dags.clearPending();
+        assertEquals(0, dags.getNumPending());
+        assertFalse(dags.isPending(17));
+    }
+
+    @Test
+    void ctor_invalidSizesShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SourceDags(-1, 1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new SourceDags(1, 0));
+    }
+}
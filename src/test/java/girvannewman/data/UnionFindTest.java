@@ -0,0 +1,41 @@
+package girvannewman.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnionFindTest {
+    @Test
+    void ctor_shouldStartWithSingletons() {
+        UnionFind uf = new UnionFind(5);
+
+        assertEquals(5, uf.getNumSets());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, uf.find(i));
+            assertEquals(1, uf.getSize(i));
+        }
+    }
+
+    @Test
+    void union_shouldMergeOnlyDisjointSets() {
+        UnionFind uf = new UnionFind(6);
+
+        assertTrue(uf.union(0, 1));
+        assertTrue(uf.union(2, 3));
+        assertTrue(uf.union(1, 3));
+        assertFalse(uf.union(0, 2));
+
+        assertEquals(3, uf.getNumSets());
+        assertEquals(4, uf.getSize(2));
+        assertEquals(uf.find(0), uf.find(3));
+        assertNotEquals(uf.find(0), uf.find(4));
+        assertNotEquals(uf.find(4), uf.find(5));
+    }
+
+    @Test
+    void ctor_negativeSizeShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new UnionFind(-1));
+    }
+}
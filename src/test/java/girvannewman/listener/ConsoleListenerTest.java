@@ -0,0 +1,38 @@
+package girvannewman.listener;
+
+import girvannewman.Solver;
+import graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+import util.GraphLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleListenerTest {
+    @Test
+    void onIteration_shouldPrintEveryNIterations() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Solver sv = new Solver();
+        sv.addListener(new ConsoleListener(new PrintStream(bytes), 2));
+        sv.solve(new CsrGraph(GraphLoader.loadEdges("data/small1.edge")), 3);
+
+        String[] lines = bytes.toString().split("\n");
+        assertEquals("Solver started", lines[0]);
+        assertTrue(lines[1].startsWith("Now on iteration 2"));
+        assertTrue(lines[2].startsWith("Now on iteration 4"));
+        assertTrue(lines[lines.length - 1].startsWith("Solver finished after"));
+    }
+
+    @Test
+    void ctor_invalidArgumentsShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsoleListener(System.out, 0));
+
+        assertThrows(NullPointerException.class,
+                () -> new ConsoleListener(null, 1));
+    }
+}
@@ -0,0 +1,45 @@
+package girvannewman.listener;
+
+import girvannewman.Solution;
+import girvannewman.Solver;
+import graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+import util.GraphLoader;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvListenerTest {
+    @Test
+    void onIteration_shouldWriteOneRowPerIteration() throws IOException {
+        StringWriter out = new StringWriter();
+
+        Solver sv = new Solver();
+        sv.addListener(new CsvListener(out));
+        Solution s = sv.solve(new CsrGraph(GraphLoader.loadEdges("data/small1.edge")), 3);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(CsvListener.HEADER, lines[0]);
+        assertEquals(s.getRemovalLog().getNumIter() + 1, lines.length);
+
+        int numColumns = CsvListener.HEADER.split(",").length;
+
+        // the first iteration of small1 removes the bridge pair 3 and 4, splitting it in two.
+        String[] first = lines[1].split(",", -1);
+        assertEquals(numColumns, first.length);
+        assertEquals("1", first[0]);
+        assertEquals("8", first[5]);
+        assertEquals("2", first[6]);
+        assertEquals("2", first[7]);
+        assertEquals(33.0 / 81.0, Double.parseDouble(first[8]), 1e-12);
+        assertEquals("3 4", first[11]);
+    }
+
+    @Test
+    void ctor_nullWriterShouldThrowNPE() {
+        assertThrows(NullPointerException.class,
+                () -> new CsvListener((java.io.Writer) null));
+    }
+}
@@ -0,0 +1,28 @@
+package girvannewman.listener;
+
+import girvannewman.Solution;
+import girvannewman.Solver;
+import graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+import util.GraphLoader;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramListenerTest {
+    @Test
+    void onIteration_shouldRecordEveryIteration() throws IOException {
+        HistogramListener hl = new HistogramListener();
+
+        Solver sv = new Solver();
+        sv.addListener(hl);
+        Solution s = sv.solve(new CsrGraph(GraphLoader.loadEdges("data/karate.edge")), 3);
+
+        int numIter = s.getRemovalLog().getNumIter();
+        assertEquals(numIter, hl.getBetw().getCount());
+        assertEquals(numIter, hl.getTotal().getCount());
+        assertTrue(hl.getTotal().getSum() >= hl.getBetw().getSum());
+        assertTrue(hl.report().contains("findComm"));
+    }
+}
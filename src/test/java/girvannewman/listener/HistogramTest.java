@@ -0,0 +1,67 @@
+package girvannewman.listener;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static util.Constants.EPSILON;
+
+class HistogramTest {
+    @Test
+    void record_shouldFillPowerOfTwoBuckets() {
+        Histogram h = new Histogram();
+        h.record(0);
+        h.record(1);
+        h.record(5);
+        h.record(7);
+        h.record(1000);
+
+        assertEquals(5, h.getCount());
+        assertEquals(1013, h.getSum());
+        assertEquals(0, h.getMin());
+        assertEquals(1000, h.getMax());
+        assertEquals(1013.0 / 5, h.getMean(), EPSILON);
+
+        assertEquals(1, h.getBucketCount(0));
+        assertEquals(1, h.getBucketCount(1));
+        assertEquals(2, h.getBucketCount(3));
+        assertEquals(1, h.getBucketCount(10));
+    }
+
+    @Test
+    void getPercentile_shouldGiveBucketUpperBound() {
+        Histogram h = new Histogram();
+
+        for (int i = 1; i <= 100; i++) {
+            h.record(i);
+        }
+
+        assertEquals(63, h.getPercentile(0.5));
+        assertEquals(100, h.getPercentile(0.99));
+        assertEquals(1, h.getPercentile(0.0));
+        assertEquals(100, h.getPercentile(1.0));
+
+        h.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, h.getPercentile(1.0));
+    }
+
+    @Test
+    void emptyHistogramShouldGiveZeros() {
+        Histogram h = new Histogram();
+
+        assertEquals(0, h.getMin());
+        assertEquals(0, h.getMax());
+        assertEquals(0.0, h.getMean(), EPSILON);
+        assertEquals(0, h.getPercentile(0.5));
+    }
+
+    @Test
+    void invalidArgumentsShouldThrowIAE() {
+        Histogram h = new Histogram();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> h.record(-1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> h.getPercentile(1.5));
+    }
+}
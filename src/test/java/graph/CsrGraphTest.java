@@ -0,0 +1,282 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import util.GraphLoader;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static util.Constants.EPSILON;
+
+class CsrGraphTest {
+    static Stream<Arguments> files() {
+        return Stream.of(
+                arguments("data/small1.edge"),
+                arguments("data/small2.edge"),
+                arguments("data/karate.edge"),
+                arguments("data/dolphins.edge")
+        );
+    }
+
+    private static Graph load(String file) {
+        Graph g = new Graph();
+        try {
+            GraphLoader.loadGraph(g, file);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("Should not throw FNFE.");
+        }
+
+        return g;
+    }
+
+    @ParameterizedTest
+    @MethodSource("files")
+    void ctor_rowsShouldMatchGraph(String file) {
+        Graph g = load(file);
+        CsrGraph csr = new CsrGraph(g);
+        Map<Integer, Set<Integer>> n = g.exportGraph();
+
+        assertEquals(g.getNumVertex(), csr.getNumVertex());
+        assertEquals(g.getNumEdge(), csr.getNumEdge());
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+
+        for (int node = 0; node < csr.getNumVertex(); node++) {
+            Set<Integer> row = new HashSet<>();
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                row.add(targets[slot]);
+
+                if (slot > offsets[node]) {
+                    assertTrue(targets[slot - 1] < targets[slot]);
+                }
+            }
+
+            assertEquals(n.get(node), row);
+            assertEquals(n.get(node).size(), csr.getDegree(node));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("files")
+    void edgeIds_shouldBeSymmetricAndMatchEndpoints(String file) {
+        CsrGraph csr = new CsrGraph(load(file));
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] edgeIds = csr.getEdgeIds();
+
+        int[] seen = new int[csr.getNumEdge()];
+
+        for (int node = 0; node < csr.getNumVertex(); node++) {
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+                int neighbor = targets[slot];
+                int edge = edgeIds[slot];
+
+                assertEquals(edge, csr.findEdge(neighbor, node));
+                assertEquals(new VertexPair(node, neighbor),
+                        new VertexPair(csr.getEdgeSource(edge), csr.getEdgeTarget(edge)));
+                assertTrue(csr.getEdgeSource(edge) < csr.getEdgeTarget(edge));
+
+                seen[edge]++;
+            }
+        }
+
+        for (int count : seen) {
+            assertEquals(2, count);
+        }
+    }
+
+    @Test
+    void edgeIds_shouldFollowLexicographicOrder() {
+        CsrGraph csr = new CsrGraph(load("data/small1.edge"));
+
+        assertEquals(0, csr.findEdge(0, 1));
+        assertEquals(1, csr.findEdge(0, 2));
+        assertEquals(2, csr.findEdge(1, 3));
+        assertEquals(3, csr.findEdge(2, 4));
+        assertEquals(4, csr.findEdge(3, 4));
+        assertEquals(8, csr.findEdge(7, 6));
+    }
+
+    @Test
+    void findEdge_missingEdgeShouldReturnNegative() {
+        CsrGraph csr = new CsrGraph(load("data/small1.edge"));
+
+        assertEquals(-1, csr.findEdge(0, 3));
+        assertEquals(-1, csr.findEdge(0, 0));
+        assertEquals(-1, csr.findEdge(-1, 0));
+        assertEquals(-1, csr.findEdge(0, -1));
+        assertEquals(-1, csr.findEdge(csr.getNumVertex(), 0));
+    }
+
+    @Test
+    void ctor_isolatedVerticesShouldHaveEmptyRows() {
+        Graph g = new Graph();
+        g.addVertex(0);
+        g.addVertex(1);
+        g.addVertex(2);
+        g.addVertex(3);
+        g.addEdge(0, 3);
+
+        CsrGraph csr = new CsrGraph(g);
+
+        assertEquals(0, csr.getDegree(1));
+        assertEquals(0, csr.getDegree(2));
+        assertEquals(0, csr.getEdgeSource(0));
+        assertEquals(3, csr.getEdgeTarget(0));
+    }
+
+    @Test
+    void ctor_nonContiguousVerticesShouldThrowIAE() {
+        Graph g = new Graph();
+        g.addVertex(0);
+        g.addVertex(5);
+        g.addEdge(0, 5);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph(g));
+    }
+
+    @ParameterizedTest
+    @MethodSource("files")
+    void ctor_edgeListShouldMatchGraph(String file) throws IOException {
+        CsrGraph expected = new CsrGraph(load(file));
+        CsrGraph actual = new CsrGraph(GraphLoader.loadEdges(file));
+
+        assertEquals(expected.getNumVertex(), actual.getNumVertex());
+        assertEquals(expected.getNumEdge(), actual.getNumEdge());
+        assertArrayEquals(expected.getOffsets(), actual.getOffsets());
+        assertArrayEquals(expected.getTargets(), actual.getTargets());
+        assertArrayEquals(expected.getEdgeIds(), actual.getEdgeIds());
+    }
+
+    @Test
+    void ctor_edgeListShouldDropRepeatedEdges() {
+        EdgeList edges = new EdgeList(1);
+        edges.add(0, 1);
+        edges.add(1, 0);
+        edges.add(3, 1);
+        edges.add(0, 1);
+
+        CsrGraph csr = new CsrGraph(edges);
+
+        assertEquals(4, csr.getNumVertex());
+        assertEquals(2, csr.getNumEdge());
+        assertEquals(0, csr.getDegree(2));
+        assertEquals(0, csr.findEdge(1, 0));
+        assertEquals(1, csr.findEdge(1, 3));
+    }
+
+    @Test
+    void ctor_arraysShouldAssignEdgeIds() {
+        CsrGraph csr = new CsrGraph(new int[]{0, 2, 3, 4}, new int[]{1, 2, 0, 0});
+
+        assertEquals(3, csr.getNumVertex());
+        assertEquals(2, csr.getNumEdge());
+        assertEquals(0, csr.findEdge(1, 0));
+        assertEquals(1, csr.findEdge(2, 0));
+        assertEquals(-1, csr.findEdge(1, 2));
+    }
+
+    static Stream<Arguments> invalidArrays() {
+        return Stream.of(
+                arguments(new int[]{0, 1, 2}, new int[]{1, 1}),
+                arguments(new int[]{0, 1, 2, 2}, new int[]{1, 2}),
+                arguments(new int[]{0, 2, 3, 4}, new int[]{2, 1, 0, 0}),
+                arguments(new int[]{0, 1, 2}, new int[]{1, 0, 0}),
+                arguments(new int[]{0, 2, 1, 2}, new int[]{1, 2}),
+                arguments(new int[]{0, 1, 2}, new int[]{5, 0})
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidArrays")
+    void ctor_invalidArraysShouldThrowIAE(int[] offsets, int[] targets) {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph(offsets, targets));
+    }
+
+    @Test
+    void ctor_weightedEdgeListShouldAddUpRepeatedEdges() {
+        EdgeList edges = new EdgeList(1);
+        edges.add(0, 1, 2.5);
+        edges.add(1, 0);
+        edges.add(3, 1, 4.0);
+        edges.add(2, 3, 0.5);
+
+        CsrGraph csr = new CsrGraph(edges);
+
+        assertTrue(csr.isWeighted());
+        assertEquals(3, csr.getNumEdge());
+        assertEquals(3.5, csr.getWeight(csr.findEdge(1, 0)), EPSILON);
+        assertEquals(4.0, csr.getWeight(csr.findEdge(1, 3)), EPSILON);
+        assertEquals(0.5, csr.getWeight(csr.findEdge(3, 2)), EPSILON);
+        assertEquals(8.0, csr.getTotalWeight(), EPSILON);
+        assertEquals(7.5, csr.getStrength(1), EPSILON);
+        assertEquals(0.5, csr.getMinWeight(), EPSILON);
+        assertEquals(4.0, csr.getMaxWeight(), EPSILON);
+        assertFalse(csr.hasIntegerWeights());
+    }
+
+    @Test
+    void ctor_weightedGraphShouldMatchEdgeList() {
+        Graph g = new Graph();
+        EdgeList edges = new EdgeList();
+        for (int node = 0; node < 4; node++) {
+            g.addVertex(node);
+        }
+
+        int[][] pairs = {{0, 1}, {2, 1}, {3, 0}, {1, 0}};
+        for (int i = 0; i < pairs.length; i++) {
+            g.addEdge(pairs[i][0], pairs[i][1], i + 1);
+            edges.add(pairs[i][0], pairs[i][1], i + 1);
+        }
+
+        CsrGraph fromGraph = new CsrGraph(g);
+        CsrGraph fromList = new CsrGraph(edges);
+
+        assertArrayEquals(fromList.getTargets(), fromGraph.getTargets());
+        assertArrayEquals(fromList.getWeights(), fromGraph.getWeights(), EPSILON);
+        assertEquals(5.0, fromGraph.getWeight(fromGraph.findEdge(0, 1)), EPSILON);
+        assertTrue(fromGraph.hasIntegerWeights());
+    }
+
+    @Test
+    void ctor_unweightedShouldWeighOne() {
+        CsrGraph csr = new CsrGraph(new int[]{0, 2, 3, 4}, new int[]{1, 2, 0, 0});
+
+        assertFalse(csr.isWeighted());
+        assertNull(csr.getWeights());
+        assertEquals(1.0, csr.getWeight(0), EPSILON);
+        assertEquals(2.0, csr.getTotalWeight(), EPSILON);
+        assertEquals(2.0, csr.getStrength(0), EPSILON);
+    }
+
+    static Stream<Arguments> invalidWeights() {
+        return Stream.of(
+                arguments((Object) new double[]{1.0}),
+                arguments((Object) new double[]{1.0, 0.0}),
+                arguments((Object) new double[]{-2.0, 1.0}),
+                arguments((Object) new double[]{1.0, Double.NaN}),
+                arguments((Object) new double[]{Double.POSITIVE_INFINITY, 1.0})
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidWeights")
+    void ctor_invalidWeightsShouldThrowIAE(double[] weights) {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph(new int[]{0, 2, 3, 4}, new int[]{1, 2, 0, 0}, weights));
+    }
+}
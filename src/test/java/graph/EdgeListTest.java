@@ -0,0 +1,93 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeListTest {
+    @Test
+    void add_shouldGrowAndKeepOrder() {
+        EdgeList edges = new EdgeList(0);
+
+        for (int i = 0; i < 100; i++) {
+            edges.add(i, i + 1);
+        }
+
+        assertEquals(100, edges.getNumEdge());
+        assertEquals(101, edges.getNumVertex());
+        assertEquals(42, edges.getSource(42));
+        assertEquals(43, edges.getTarget(42));
+    }
+
+    @Test
+    void getNumVertex_emptyShouldBeZero() {
+        assertEquals(0, new EdgeList().getNumVertex());
+    }
+
+    @Test
+    void add_negativeNodeShouldThrowIAE() {
+        EdgeList edges = new EdgeList();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> edges.add(-1, 0));
+    }
+
+    @Test
+    void add_selfLoopShouldThrowIAE() {
+        EdgeList edges = new EdgeList();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> edges.add(2, 2));
+    }
+
+    @Test
+    void ctor_negativeCapacityShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EdgeList(-1));
+    }
+
+    @Test
+    void add_weightShouldMakeListWeighted() {
+        EdgeList edges = new EdgeList(0);
+        edges.add(0, 1);
+
+        assertFalse(edges.isWeighted());
+        assertEquals(1.0, edges.getWeight(0));
+
+        for (int i = 1; i < 40; i++) {
+            edges.add(i, i + 1, 0.5 * i);
+        }
+
+        edges.add(40, 41);
+
+        assertTrue(edges.isWeighted());
+        assertEquals(1.0, edges.getWeight(0));
+        assertEquals(10.0, edges.getWeight(20));
+        assertEquals(1.0, edges.getWeight(40));
+    }
+
+    @Test
+    void setWeighted_shouldKeepUnitWeights() {
+        EdgeList edges = new EdgeList();
+        edges.add(0, 1);
+        edges.setWeighted();
+        edges.add(1, 2);
+
+        assertTrue(edges.isWeighted());
+        assertEquals(1.0, edges.getWeight(0));
+        assertEquals(1.0, edges.getWeight(1));
+    }
+
+    @Test
+    void add_nonPositiveWeightShouldThrowIAE() {
+        EdgeList edges = new EdgeList();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> edges.add(0, 1, 0.0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> edges.add(0, 1, Double.NaN));
+
+        assertEquals(0, edges.getNumEdge());
+    }
+}
@@ -319,4 +319,29 @@ class GraphTest {
                     g.addEdge(2, 2);
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    void addEdge_weightShouldAddUp() {
+        Graph g = new Graph();
+        g.addVertex(0);
+        g.addVertex(1);
+        g.addVertex(2);
+
+        g.addEdge(0, 1);
+        assertFalse(g.isWeighted());
+        assertEquals(1.0, g.getWeight(1, 0));
+
+        g.addEdge(1, 2, 2.5);
+        g.addEdge(2, 1, 0.5);
+
+        assertTrue(g.isWeighted());
+        assertEquals(2, g.getNumEdge());
+        assertEquals(3.0, g.getWeight(1, 2));
+        assertEquals(1.0, g.getWeight(0, 1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> {
+                    g.addEdge(0, 2, -1.0);
+                });
+    }
+}
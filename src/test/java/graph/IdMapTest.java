@@ -0,0 +1,83 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdMapTest {
+    @Test
+    void getOrAdd_shouldNumberIdsInOrderOfAppearance() {
+        IdMap ids = new IdMap(0);
+        long[] raw = {Long.MAX_VALUE, 0, 42, 1L << 40, 42, 0};
+
+        assertEquals(0, ids.getOrAdd(raw[0]));
+        assertEquals(1, ids.getOrAdd(raw[1]));
+        assertEquals(2, ids.getOrAdd(raw[2]));
+        assertEquals(3, ids.getOrAdd(raw[3]));
+        assertEquals(2, ids.getOrAdd(raw[4]));
+        assertEquals(1, ids.getOrAdd(raw[5]));
+
+        assertEquals(4, ids.size());
+        assertEquals(1L << 40, ids.getId(3));
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 0, 42, 1L << 40}, ids.getIds());
+    }
+
+    @Test
+    void getOrAdd_shouldSurviveGrowing() {
+        IdMap ids = new IdMap();
+        Random random = new Random(3);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextInt(50_000) * 1_000_000_007L;
+            int node = ids.getOrAdd(id);
+
+            assertEquals(expected.computeIfAbsent(id, k -> expected.size()), node);
+        }
+
+        assertEquals(expected.size(), ids.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), ids.get(entry.getKey()));
+            assertEquals(entry.getKey(), ids.getId(entry.getValue()));
+        }
+    }
+
+    @Test
+    void get_missingIdShouldReturnNegative() {
+        IdMap ids = new IdMap();
+        ids.getOrAdd(5);
+
+        assertEquals(-1, ids.get(6));
+    }
+
+    @Test
+    void toExternal_shouldTranslateMembers() {
+        IdMap ids = new IdMap();
+        ids.getOrAdd(100);
+        ids.getOrAdd(7);
+        ids.getOrAdd(3000000000L);
+
+        Map<Integer, Set<Integer>> commSets = new HashMap<>();
+        commSets.put(0, new HashSet<>(Arrays.asList(0, 2)));
+        commSets.put(1, new HashSet<>(Collections.singletonList(1)));
+
+        Map<Integer, Set<Long>> external = ids.toExternal(commSets);
+
+        assertEquals(new HashSet<>(Arrays.asList(100L, 3000000000L)), external.get(0));
+        assertEquals(new HashSet<>(Collections.singletonList(7L)), external.get(1));
+    }
+
+    @Test
+    void getId_invalidNodeShouldThrowIAE() {
+        IdMap ids = new IdMap();
+        ids.getOrAdd(9);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ids.getId(1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new IdMap(-1));
+    }
+}
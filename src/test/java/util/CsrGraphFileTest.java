@@ -0,0 +1,133 @@
+package util;
+
+import graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class CsrGraphFileTest {
+    static Stream<Arguments> files() {
+        return Stream.of(
+                arguments("data/small1.edge"),
+                arguments("data/karate.edge"),
+                arguments("data/dolphins.edge")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("files")
+    void read_shouldMatchWrittenGraph(String file, @TempDir Path dir) throws IOException {
+        CsrGraph expected = new CsrGraph(GraphLoader.loadEdges(file));
+        Path out = dir.resolve("graph.csr");
+
+        CsrGraphFile.write(expected, out);
+        CsrGraph actual = CsrGraphFile.read(out);
+
+        assertEquals(expected.getNumVertex(), actual.getNumVertex());
+        assertEquals(expected.getNumEdge(), actual.getNumEdge());
+        assertArrayEquals(expected.getOffsets(), actual.getOffsets());
+        assertArrayEquals(expected.getTargets(), actual.getTargets());
+        assertArrayEquals(expected.getEdgeIds(), actual.getEdgeIds());
+        assertEquals(20 + 4 * (expected.getNumVertex() + 1) + 8 * expected.getNumEdge() + 4, Files.size(out));
+    }
+
+    @Test
+    void convert_shouldMatchEdgeFile(@TempDir Path dir) throws IOException {
+        Path edgeFile = dir.resolve("small.edge");
+        Files.write(edgeFile, "# tiny\n0 1\n1 2\n2 0\n".getBytes());
+        Path out = dir.resolve("small.csr");
+
+        CsrGraphFile.convert(edgeFile, out);
+        CsrGraph g = CsrGraphFile.read(out);
+
+        assertEquals(3, g.getNumVertex());
+        assertEquals(3, g.getNumEdge());
+        assertEquals(1, g.findEdge(2, 0));
+    }
+
+    @Test
+    void read_corruptedFileShouldThrowIAE(@TempDir Path dir) throws IOException {
+        Path out = dir.resolve("graph.csr");
+        CsrGraphFile.write(new CsrGraph(GraphLoader.loadEdges("data/karate.edge")), out);
+
+        byte[] bytes = Files.readAllBytes(out);
+        bytes[100] ^= 1;
+        Files.write(out, bytes);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CsrGraphFile.read(out));
+    }
+
+    @Test
+    void read_truncatedFileShouldThrowIAE(@TempDir Path dir) throws IOException {
+        Path out = dir.resolve("graph.csr");
+        CsrGraphFile.write(new CsrGraph(GraphLoader.loadEdges("data/karate.edge")), out);
+
+        byte[] bytes = Files.readAllBytes(out);
+        Files.write(out, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CsrGraphFile.read(out));
+    }
+
+    @Test
+    void read_wrongMagicShouldThrowIAE(@TempDir Path dir) throws IOException {
+        Path out = dir.resolve("graph.edge");
+        Files.write(out, "0 1\n1 2\n2 3\n3 4\n".getBytes());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CsrGraphFile.read(out));
+    }
+
+    @Test
+    void read_shouldKeepWeights(@TempDir Path dir) throws IOException {
+        Path edgeFile = dir.resolve("weighted.edge");
+        Files.write(edgeFile, "0 1 0.25\n1 2 3\n2 0 1e-3\n0 1 1\n".getBytes());
+        Path out = dir.resolve("weighted.csr");
+
+        CsrGraphFile.convert(edgeFile, out);
+        CsrGraph g = CsrGraphFile.read(out);
+
+        assertTrue(g.isWeighted());
+        assertArrayEquals(new double[]{1.25, 0.001, 3.0}, g.getWeights());
+        assertEquals(20 + 4 * 4 + 8 * 3 + 8 * 3 + 4, Files.size(out));
+    }
+
+    @Test
+    void read_versionOneFileShouldStillLoad(@TempDir Path dir) throws IOException {
+        CsrGraph expected = new CsrGraph(GraphLoader.loadEdges("data/karate.edge"));
+        Path out = dir.resolve("graph.csr");
+        CsrGraphFile.write(expected, out);
+
+        // drop the flags and recompute the checksum, which gives the layout written by version 1.
+        byte[] bytes = Files.readAllBytes(out);
+        ByteBuffer old = ByteBuffer.allocate(bytes.length - 4).order(ByteOrder.LITTLE_ENDIAN);
+        old.put(bytes, 0, 16).put(bytes, 20, bytes.length - 24);
+        old.putInt(4, 1);
+
+        CRC32 crc = new CRC32();
+        crc.update(old.array(), 0, bytes.length - 8);
+        old.putInt(bytes.length - 8, (int) crc.getValue());
+        Files.write(out, old.array());
+
+        CsrGraph actual = CsrGraphFile.read(out);
+
+        assertFalse(actual.isWeighted());
+        assertArrayEquals(expected.getOffsets(), actual.getOffsets());
+        assertArrayEquals(expected.getTargets(), actual.getTargets());
+    }
+}
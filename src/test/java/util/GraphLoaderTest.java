@@ -1,13 +1,20 @@
 package util;
 
+import graph.CsrGraph;
+import graph.EdgeList;
 import graph.Graph;
+import graph.IdMap;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
-import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -61,4 +68,143 @@ class GraphLoaderTest {
                     GraphLoader.loadGraph(g, "asdf.edge");
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    void loadGraph_pathShouldSkipCommentsAndExtraColumns(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("with spaces.edge");
+        String text = "# comment\n% another one\n\n0 1\r\n1\t2 0.5\n  2,3\n3 0 # trailing\n1 0\n";
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+
+        assertEquals(4, g.getNumVertex());
+        assertEquals(4, g.getNumEdge());
+        assertTrue(g.exportGraph().get(0).contains(3));
+        assertTrue(g.exportGraph().get(2).contains(1));
+    }
+
+    @Test
+    void loadEdges_lastLineWithoutNewlineShouldBeRead(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("a.edge");
+        Files.write(file, "5 7\n12345 6".getBytes(StandardCharsets.US_ASCII));
+
+        EdgeList edges = GraphLoader.loadEdges(file);
+
+        assertEquals(2, edges.getNumEdge());
+        assertEquals(12345, edges.getSource(1));
+        assertEquals(6, edges.getTarget(1));
+        assertEquals(12346, edges.getNumVertex());
+    }
+
+    @Test
+    void loadEdges_shouldMatchResource(@TempDir Path dir) throws IOException {
+        EdgeList fromResource = GraphLoader.loadEdges("data/karate.edge");
+
+        Path file = dir.resolve("karate.edge");
+        Files.copy(GraphLoader.class.getClassLoader().getResourceAsStream("data/karate.edge"), file);
+        EdgeList fromPath = GraphLoader.loadEdges(file);
+
+        assertEquals(78, fromResource.getNumEdge());
+        assertEquals(fromResource.getNumEdge(), fromPath.getNumEdge());
+
+        for (int i = 0; i < fromPath.getNumEdge(); i++) {
+            assertEquals(fromResource.getSource(i), fromPath.getSource(i));
+            assertEquals(fromResource.getTarget(i), fromPath.getTarget(i));
+        }
+    }
+
+    static Stream<Arguments> malformed() {
+        return Stream.of(
+                arguments("0 1\n2\n"),
+                arguments("0 -1\n"),
+                arguments("0 x\n"),
+                arguments("0 1\n3 3\n"),
+                arguments("0 99999999999\n"),
+                arguments("0 1 x\n"),
+                arguments("0 1 1.5.2\n"),
+                arguments("0 1 -2\n"),
+                arguments("0 1 0\n")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("malformed")
+    void loadEdges_malformedLineShouldThrowIAE(String text, @TempDir Path dir) throws IOException {
+        Path file = dir.resolve("bad.edge");
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphLoader.loadEdges(file));
+    }
+
+    @Test
+    void loadEdges_missingPathShouldThrowIOE(@TempDir Path dir) {
+        assertThrows(IOException.class,
+                () -> GraphLoader.loadEdges(dir.resolve("asdf.edge")));
+    }
+
+    @Test
+    void loadEdges_thirdColumnShouldBeWeight(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("weighted.edge");
+        Files.write(file, "0 1\n1 2 2.5 extra\n2,3,1e1\n3 0 # trailing\n".getBytes(StandardCharsets.US_ASCII));
+
+        EdgeList edges = GraphLoader.loadEdges(file);
+
+        assertTrue(edges.isWeighted());
+        assertEquals(4, edges.getNumEdge());
+        assertEquals(1.0, edges.getWeight(0));
+        assertEquals(2.5, edges.getWeight(1));
+        assertEquals(10.0, edges.getWeight(2));
+        assertEquals(1.0, edges.getWeight(3));
+
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file);
+        assertEquals(2.5, g.getWeight(2, 1));
+    }
+
+    @Test
+    void loadEdges_countDuplicatesShouldWeighRepeatedLines(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("log.edge");
+        Files.write(file, "0 1\n1 0\n1 2\n0 1\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertFalse(GraphLoader.loadEdges(file).isWeighted());
+
+        CsrGraph g = new CsrGraph(GraphLoader.loadEdges(file, true));
+
+        assertEquals(2, g.getNumEdge());
+        assertEquals(3.0, g.getWeight(g.findEdge(0, 1)));
+        assertEquals(1.0, g.getWeight(g.findEdge(1, 2)));
+    }
+
+    @Test
+    void loadEdges_idMapShouldGiveDenseNodes(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sparse.edge");
+        String text = "9223372036854775807 12\n12 4000000000 2\n# comment\n4000000000 9223372036854775807\n";
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+
+        IdMap ids = new IdMap();
+        EdgeList edges = GraphLoader.loadEdges(file, ids);
+
+        assertEquals(3, ids.size());
+        assertEquals(3, edges.getNumVertex());
+        assertEquals(0, edges.getSource(0));
+        assertEquals(2, edges.getTarget(1));
+        assertEquals(2.0, edges.getWeight(1));
+        assertEquals(4000000000L, ids.getId(edges.getSource(2)));
+
+        Graph g = new Graph();
+        GraphLoader.loadGraph(g, file, new IdMap());
+        assertEquals(3, g.getNumVertex());
+        assertEquals(3, g.getNumEdge());
+    }
+
+    @Test
+    void loadEdges_idMapShouldRejectOverflow(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("big.edge");
+        Files.write(file, "9223372036854775808 1\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphLoader.loadEdges(file, new IdMap()));
+    }
+}
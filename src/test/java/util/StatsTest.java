@@ -0,0 +1,42 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class StatsTest {
+    static Stream<Arguments> quantiles() {
+        return Stream.of(
+                arguments(0.5, 0.0),
+                arguments(0.975, 1.959963985),
+                arguments(0.025, -1.959963985),
+                arguments(0.995, 2.575829304),
+                arguments(0.8413447461, 1.0),
+                arguments(0.001, -3.090232306)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("quantiles")
+    void normalQuantile_shouldBeCorrect(double p, double z) {
+        assertEquals(z, Stats.normalQuantile(p), 1E-6);
+    }
+
+    @Test
+    void normalQuantile_outOfRangeShouldThrowIAE() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Stats.normalQuantile(0.0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Stats.normalQuantile(1.0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Stats.normalQuantile(-0.5));
+    }
+}